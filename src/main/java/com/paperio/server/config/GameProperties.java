@@ -8,15 +8,43 @@ public record GameProperties(
         PhysicsConfig physics,
         RoomConfig room,
         BotConfig bot,
-        CombatConfig combat
+        CombatConfig combat,
+        NetworkConfig network,
+        TerritoryConfig territory,
+        LoopConfig loop,
+        LodConfig lod,
+        TransportConfig transport,
+        JournalConfig journal
 ) {
     public record MapConfig(int width, int height, int gridCellSize) {}
 
     public record PhysicsConfig(double speed, double turnSpeed, double startRadius) {}
 
-    public record RoomConfig(int maxPlayers, int botTarget, long gracePeriodMs, double visibilityRadius) {}
+    public record RoomConfig(int maxPlayers, int botTarget, long gracePeriodMs, double visibilityRadius,
+                             double visibilityHysteresis, int tickParallelism, int parallelThreshold) {}
 
-    public record BotConfig(int maxTrailLength, double lookaheadDist, double randomTurnChance, int reactionTimeFrames) {}
+    public record BotConfig(int maxTrailLength, double lookaheadDist, double randomTurnChance, int reactionTimeFrames,
+                            double threatDistance) {}
 
     public record CombatConfig(double killDistance, double selfKillDistance, double trailSafetyBuffer) {}
+
+    public record NetworkConfig(int keyframeInterval, int controlQueueCapacity, int maxStaleFrames) {}
+
+    public record TerritoryConfig(int conquestWorkers, int commitDelayTicks, ConquestEngineType conquestEngine,
+                                  int vertexBudget, TerritoryMode mode, int rasterCellSize, long commitTimeoutMs) {}
+
+    public record LoopConfig(int tickRate, int maxCatchUpTicks, int shards, double rebalanceRatio,
+                             long rebalanceIntervalMs) {}
+
+    public record LodConfig(double nearRadius, int farInterval, int farTrailPoints, double farSimplifyTolerance) {}
+
+    public record TransportConfig(NettyConfig netty) {}
+
+    public record NettyConfig(boolean enabled, int port, String path, int workerThreads, int maxFrameBytes) {}
+
+    public record JournalConfig(boolean enabled, String directory, int segmentBytes, int checkpointInterval) {}
+
+    public enum ConquestEngineType { OVERLAY, SPLICE }
+
+    public enum TerritoryMode { VECTOR, RASTER }
 }
\ No newline at end of file
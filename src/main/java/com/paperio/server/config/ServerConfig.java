@@ -5,12 +5,26 @@ import org.springframework.context.annotation.Configuration;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 @Configuration
 public class ServerConfig {
 
-    @Bean(name = "gameExecutor")
-    public ExecutorService gameExecutor() {
+    @Bean(name = "outboundExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService outboundExecutor() {
         return Executors.newVirtualThreadPerTaskExecutor();
     }
+
+    @Bean(name = "tickPool", destroyMethod = "shutdownNow")
+    public ForkJoinPool tickPool(GameProperties props) {
+        return new ForkJoinPool(Math.max(1, props.room().tickParallelism()));
+    }
+
+    @Bean(name = "conquestExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService conquestExecutor(GameProperties props) {
+        return Executors.newFixedThreadPool(
+                Math.max(1, props.territory().conquestWorkers()),
+                Thread.ofPlatform().name("conquest-", 0).daemon().factory()
+        );
+    }
 }
\ No newline at end of file
@@ -2,29 +2,41 @@ package com.paperio.server.engine;
 
 import com.paperio.server.config.GameProperties;
 import com.paperio.server.model.Player;
-import lombok.RequiredArgsConstructor;
-import org.locationtech.jts.geom.Coordinate;
+import com.paperio.server.model.Trail;
+import lombok.Getter;
 import org.locationtech.jts.geom.Point;
 
-import java.util.List;
+import java.util.Collection;
 import java.util.Random;
 
-@RequiredArgsConstructor
 public class BotController {
     private final Player player;
     private final GameProperties.MapConfig mapConfig;
     private final GameProperties.BotConfig botConfig;
-    private final Random random = new Random();
+    @Getter private final long seed;
+    private final Random random;
 
     private BotState state = BotState.ROAMING;
     private int stateTimer = 0;
 
     private enum BotState { ROAMING, EXPANDING, RETURNING, EVADING }
 
-    public void tick() {
+    /** The seed is journaled with the spawn so a replayed bot makes the same choices. */
+    public BotController(Player player, GameProperties.MapConfig mapConfig, GameProperties.BotConfig botConfig,
+                         long seed) {
+        this.player = player;
+        this.mapConfig = mapConfig;
+        this.botConfig = botConfig;
+        this.seed = seed;
+        this.random = new Random(seed);
+    }
+
+    public void tick(Collection<Player> visible) {
         if (checkImmediateDanger()) {
             state = BotState.EVADING;
             stateTimer = botConfig.reactionTimeFrames();
+        } else if (state == BotState.EXPANDING && isTrailThreatened(visible)) {
+            state = BotState.RETURNING;
         }
 
         switch (state) {
@@ -47,7 +59,7 @@ public class BotController {
     }
 
     private void handleExpansion() {
-        if (player.getTrailPoints().size() > botConfig.maxTrailLength()) {
+        if (player.getTrail().size() > botConfig.maxTrailLength()) {
             state = BotState.RETURNING;
             return;
         }
@@ -65,7 +77,7 @@ public class BotController {
         player.setTargetX(center.getX());
         player.setTargetY(center.getY());
 
-        if (player.getTrailPoints().isEmpty()) {
+        if (player.getTrail().isEmpty()) {
             state = BotState.ROAMING;
             stateTimer = 20;
         }
@@ -73,7 +85,7 @@ public class BotController {
 
     private void handleEvasion() {
         if (stateTimer <= 0) {
-            state = player.getTrailPoints().isEmpty() ? BotState.EXPANDING : BotState.RETURNING;
+            state = player.getTrail().isEmpty() ? BotState.EXPANDING : BotState.RETURNING;
         }
     }
 
@@ -87,10 +99,12 @@ public class BotController {
             return true;
         }
 
-        List<Coordinate> trail = player.getTrailPoints();
+        Trail trail = player.getTrail();
         if (trail.size() > 10) {
             for (int i = 0; i < trail.size() - 5; i++) {
-                if (trail.get(i).distance(new Coordinate(lookX, lookY)) < 15.0) {
+                double dx = trail.getX(i) - lookX;
+                double dy = trail.getY(i) - lookY;
+                if (dx * dx + dy * dy < 15.0 * 15.0) {
                     setTargetInDirection(player.getAngle() + Math.PI / 2, 200);
                     return true;
                 }
@@ -99,6 +113,16 @@ public class BotController {
         return false;
     }
 
+    private boolean isTrailThreatened(Collection<Player> visible) {
+        Trail trail = player.getTrail();
+        if (trail.isEmpty()) return false;
+        for (Player other : visible) {
+            if (other == player || !other.isAlive()) continue;
+            if (trail.isNear(other.getX(), other.getY(), botConfig.threatDistance(), trail.size())) return true;
+        }
+        return false;
+    }
+
     private void avoidWall(double lookX, double lookY) {
         double angle = player.getAngle();
         if (lookX < 0 || lookX > mapConfig.width()) angle = Math.PI - angle;
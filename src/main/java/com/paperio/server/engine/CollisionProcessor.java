@@ -2,56 +2,86 @@ package com.paperio.server.engine;
 
 import com.paperio.server.config.GameProperties;
 import com.paperio.server.model.Player;
+import com.paperio.server.model.Trail;
 import com.paperio.server.service.GeometryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.locationtech.jts.geom.*;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class CollisionProcessor {
-    private final GeometryService geoService;
     private final GameProperties props;
-    private final GeometryFactory factory = new GeometryFactory();
+    private final GeometryService geoService;
+    private final ThreadLocal<SpatialGrid.Candidates> candidates = ThreadLocal.withInitial(SpatialGrid.Candidates::new);
 
-    public void processCollisions(SpatialGrid grid, Iterable<Player> allPlayers) {
-        for (Player attacker : allPlayers) {
-            if (!attacker.isAlive()) continue;
+    /**
+     * Detect phase: collects the players killed by the attacker's move this tick, possibly the attacker itself.
+     * Reads only, so it can run for many attackers in parallel; kills take effect in {@link #resolve}.
+     */
+    public void detectKills(SpatialGrid grid, Player attacker, List<Player> killed) {
+        if (!attacker.isAlive()) return;
 
-            checkSelfCollision(attacker);
+        if (hitsOwnTrail(attacker)) killed.add(attacker);
 
-            for (Player victim : grid.getPotentialColliders(attacker)) {
-                if (attacker == victim || !victim.isAlive()) continue;
-                handlePvP(attacker, victim);
-            }
+        SpatialGrid.Candidates nearby = candidates.get();
+        grid.queryTrails(attacker.getPrevX(), attacker.getPrevY(), attacker.getX(), attacker.getY(),
+                props.combat().killDistance(), nearby);
+        for (int i = 0; i < nearby.size(); i++) {
+            Player victim = nearby.get(i);
+            if (attacker == victim || !victim.isAlive()) continue;
+            if (hitsTrail(attacker, victim)) killed.add(victim);
         }
     }
 
-    private void checkSelfCollision(Player p) {
-        if (p.getTrailPoints().size() < 20) return;
-        var subList = p.getTrailPoints().subList(0, p.getTrailPoints().size() - 15);
-        var oldTrailLine = geoService.createLine(subList);
-        var head = factory.createPoint(new Coordinate(p.getX(), p.getY()));
+    /**
+     * Resolve phase, serial: applies every detected kill at once (mutual kills both land), then resolves territory
+     * overlaps in the given order.
+     */
+    public void resolve(SpatialGrid grid, List<Player> order, List<List<Player>> kills, boolean resolveOverlaps) {
+        for (List<Player> killed : kills) {
+            for (Player victim : killed) victim.setAlive(false);
+        }
+        if (!resolveOverlaps) return;
 
-        if (oldTrailLine != null && oldTrailLine.distance(head) < props.combat().selfKillDistance()) {
-            p.setAlive(false);
+        SpatialGrid.Candidates nearby = candidates.get();
+        for (Player attacker : order) {
+            // Overlaps can only appear when a territory grows, so only territories changed since their last
+            // check are resolved; steady-state ticks do no overlays at all.
+            if (!attacker.isAlive() || attacker.getOverlapCheckedVersion() == attacker.getTerritoryVersion()) continue;
+            grid.queryTerritories(attacker.getTerritory().getEnvelopeInternal(), nearby);
+            for (int i = 0; i < nearby.size(); i++) {
+                Player victim = nearby.get(i);
+                if (attacker == victim || !victim.isAlive()) continue;
+                resolveOverlap(attacker, victim);
+            }
+            attacker.setOverlapCheckedVersion(attacker.getTerritoryVersion());
         }
     }
 
-    private void handlePvP(Player attacker, Player victim) {
-        Point head = factory.createPoint(new Coordinate(attacker.getX(), attacker.getY()));
-        LineString victimTrail = geoService.createLine(victim.getTrailPoints());
+    private boolean hitsOwnTrail(Player p) {
+        Trail trail = p.getTrail();
+        if (trail.size() < 20) return false;
 
-        if (victimTrail != null && victimTrail.distance(head) < props.combat().killDistance()) {
-            victim.setAlive(false);
-        }
+        return trail.isNearSegment(p.getPrevX(), p.getPrevY(), p.getX(), p.getY(),
+                props.combat().selfKillDistance(), trail.size() - 15);
+    }
+
+    private boolean hitsTrail(Player attacker, Player victim) {
+        Trail victimTrail = victim.getTrail();
+        return victimTrail.isNearSegment(attacker.getPrevX(), attacker.getPrevY(), attacker.getX(), attacker.getY(),
+                props.combat().killDistance(), victimTrail.size());
+    }
 
+    private void resolveOverlap(Player attacker, Player victim) {
         try {
             if (attacker.getTerritory().getEnvelopeInternal().intersects(victim.getTerritory().getEnvelopeInternal())) {
                 if (attacker.getTerritory().intersects(victim.getTerritory())) {
-                    victim.setTerritory(victim.getTerritory().difference(attacker.getTerritory()));
+                    victim.shrinkTerritory(geoService.enforceVertexBudgetWithin(
+                            victim.getTerritory().difference(attacker.getTerritory())));
                     if (victim.getTerritory().isEmpty()) victim.setAlive(false);
                 }
             }
@@ -1,13 +1,14 @@
 package com.paperio.server.engine;
 
 import com.paperio.server.config.GameProperties;
+import com.paperio.server.journal.JournalTick;
 import com.paperio.server.model.Player;
 import com.paperio.server.service.GeometryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import org.springframework.web.socket.WebSocketSession;
 
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 @RequiredArgsConstructor
@@ -15,12 +16,12 @@ public class EntityFactory {
     private final GeometryService geoService;
     private final GameProperties props;
 
-    public Player createHuman(WebSocketSession session, String name) {
+    public Player createHuman(String id, String name) {
         var spawn = getRandomSpawn();
         var territory = geoService.createInitialCircle(spawn.x, spawn.y, props.physics().startRadius());
 
         return new Player(
-                session.getId(),
+                id,
                 name,
                 spawn.x,
                 spawn.y,
@@ -38,12 +39,25 @@ public class EntityFactory {
         Player bot = new Player(id, name, spawn.x, spawn.y, props.physics(), territory);
         bot.setBot(true);
 
-        BotController controller = new BotController(bot, props.map(), props.bot());
+        BotController controller = new BotController(bot, props.map(), props.bot(),
+                ThreadLocalRandom.current().nextLong());
         bot.setBotController(controller);
 
         return bot;
     }
 
+    /** Rebuilds a journaled spawn with the same identity, colour, position, net id and bot seed. */
+    public Player restore(JournalTick.Spawn spawn) {
+        var territory = geoService.createInitialCircle(spawn.x(), spawn.y(), props.physics().startRadius());
+        Player p = new Player(spawn.id(), spawn.name(), spawn.color(), spawn.x(), spawn.y(), props.physics(), territory);
+        p.setNetId(spawn.netId());
+        if (spawn.bot()) {
+            p.setBot(true);
+            p.setBotController(new BotController(p, props.map(), props.bot(), spawn.seed()));
+        }
+        return p;
+    }
+
     private SpawnPoint getRandomSpawn() {
         double x = 100 + Math.random() * (props.map().width() - 200);
         double y = 100 + Math.random() * (props.map().height() - 200);
@@ -3,12 +3,12 @@ package com.paperio.server.engine;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paperio.server.config.GameProperties;
 import com.paperio.server.model.Player;
+import com.paperio.server.network.ClientSession;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.socket.WebSocketSession;
 
 import java.util.Map;
 import java.util.UUID;
@@ -27,16 +27,21 @@ public class GameEngine {
     private final PhysicsProcessor physicsProcessor;
     private final CollisionProcessor collisionProcessor;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final ExecutorService gameExecutor;
+    private final RoomScheduler roomScheduler;
+    private final ForkJoinPool tickPool;
+    private final ExecutorService outboundExecutor;
 
     public GameEngine(GameProperties props, EntityFactory entityFactory,
                       PhysicsProcessor physicsProcessor, CollisionProcessor collisionProcessor,
-                      @Qualifier("gameExecutor") ExecutorService gameExecutor) {
+                      RoomScheduler roomScheduler, @Qualifier("tickPool") ForkJoinPool tickPool,
+                      @Qualifier("outboundExecutor") ExecutorService outboundExecutor) {
         this.props = props;
         this.entityFactory = entityFactory;
         this.physicsProcessor = physicsProcessor;
         this.collisionProcessor = collisionProcessor;
-        this.gameExecutor = gameExecutor;
+        this.roomScheduler = roomScheduler;
+        this.tickPool = tickPool;
+        this.outboundExecutor = outboundExecutor;
     }
 
     @PostConstruct
@@ -44,11 +49,12 @@ public class GameEngine {
         ForkJoinPool.commonPool().submit(() -> log.info("Common pool warmed up")).join();
     }
 
-    public void joinGame(WebSocketSession session, String playerName) {
+    public Player joinGame(ClientSession session, String playerName) {
         var room = findBestRoom();
-        Player player = entityFactory.createHuman(session, playerName);
+        Player player = entityFactory.createHuman(session.getId(), playerName);
         room.addPlayer(session, player);
         sessionRoomMap.put(session.getId(), room.getRoomId());
+        return player;
     }
 
     private GameRoom findBestRoom() {
@@ -60,24 +66,16 @@ public class GameEngine {
 
     private GameRoom createRoom() {
         String id = UUID.randomUUID().toString();
-        var room = new GameRoom(id, props, entityFactory, physicsProcessor, collisionProcessor, objectMapper);
+        var room = new GameRoom(id, props, entityFactory, physicsProcessor, collisionProcessor, objectMapper,
+                tickPool, outboundExecutor, props.journal().enabled());
         rooms.put(id, room);
+        roomScheduler.start(room);
         log.info("New room created with UUID: {}", id);
         return room;
     }
 
-    @Scheduled(fixedRate = 16)
-    public void serverTick() {
-        rooms.values().forEach(room ->
-                gameExecutor.submit(() -> {
-                    try {
-                        room.tick();
-                    } catch (Exception e) {
-                        log.error("Error ticking room {}", room.getRoomId(), e);
-                    }
-                })
-        );
-
+    @Scheduled(fixedRate = 1000)
+    public void pruneRooms() {
         long now = System.currentTimeMillis();
         rooms.entrySet().removeIf(entry -> {
             GameRoom room = entry.getValue();
@@ -86,23 +84,14 @@ public class GameEngine {
 
             if (isEmpty && isOldEnough) {
                 log.info("Room Pruning: Closing inactive room {}", entry.getKey());
+                roomScheduler.stop(room);
+                room.close();
                 return true;
             }
             return false;
         });
     }
 
-    @Scheduled(fixedRate = 1000)
-    public void manageBotPopulation() {
-        rooms.values().forEach(room -> {
-            try {
-                room.maintainPopulation();
-            } catch (Exception e) {
-                log.error("Error maintaining population in room {}", room.getRoomId(), e);
-            }
-        });
-    }
-
     public void leaveGame(String id) {
         var roomId = sessionRoomMap.remove(id);
         if (roomId != null) {
@@ -111,17 +100,19 @@ public class GameEngine {
                 room.removePlayer(id);
                 if (room.getPlayerCount() == 0) {
                     rooms.remove(roomId);
+                    roomScheduler.stop(room);
+                    room.close();
                     log.info("Room {} purged from engine", roomId);
                 }
             }
         }
     }
 
-    public void handleInput(String id, double x, double y) {
+    public void handleInput(String id, double x, double y, int seq) {
         var roomId = sessionRoomMap.get(id);
         if (roomId != null) {
             var room = rooms.get(roomId);
-            if (room != null) room.handleInput(id, x, y);
+            if (room != null) room.handleInput(id, x, y, seq);
         }
     }
 
@@ -132,4 +123,35 @@ public class GameEngine {
     public Integer getRoomCount() {
         return rooms.size();
     }
+
+    /** Average encoded frame size across all clients; compare runs with and without LOD to measure savings. */
+    public Long getAverageFrameBytes() {
+        long frames = rooms.values().stream().mapToLong(GameRoom::getFramesSent).sum();
+        long bytes = rooms.values().stream().mapToLong(GameRoom::getBytesSent).sum();
+        return frames == 0 ? 0 : bytes / frames;
+    }
+
+    public Integer getOutboundQueueDepth() {
+        return rooms.values().stream().mapToInt(GameRoom::getOutboundQueueDepth).sum();
+    }
+
+    public Long getDroppedFrames() {
+        return rooms.values().stream().mapToLong(GameRoom::getDroppedFrames).sum();
+    }
+
+    public Long getOverrunTicks() {
+        return roomScheduler.getOverrunTicks();
+    }
+
+    public Long getSkippedTicks() {
+        return roomScheduler.getSkippedTicks();
+    }
+
+    public Integer getMaxTerritoryVertices() {
+        return rooms.values().stream().mapToInt(GameRoom::getMaxTerritoryVertices).max().orElse(0);
+    }
+
+    public Integer getTotalTerritoryVertices() {
+        return rooms.values().stream().mapToInt(GameRoom::getTotalTerritoryVertices).sum();
+    }
 }
\ No newline at end of file
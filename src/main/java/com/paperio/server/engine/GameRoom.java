@@ -1,29 +1,49 @@
 package com.paperio.server.engine;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paperio.server.config.GameProperties;
+import com.paperio.server.journal.JournalTick;
+import com.paperio.server.journal.RoomJournal;
 import com.paperio.server.model.Player;
+import com.paperio.server.network.BinaryFrameEncoder;
+import com.paperio.server.network.ClientSession;
+import com.paperio.server.network.CloseReason;
+import com.paperio.server.network.ClientView;
+import com.paperio.server.network.FrameEncoder;
+import com.paperio.server.network.JsonFrameEncoder;
+import com.paperio.server.network.OutboundFrame;
+import com.paperio.server.network.SessionSender;
+import com.paperio.server.network.WireFormat;
+import com.paperio.server.network.WorldFrame;
+import com.paperio.server.network.protocol.InitPacket;
 import com.paperio.server.network.protocol.LeaderboardEntryDTO;
-import com.paperio.server.network.protocol.PlayerDTO;
-import com.paperio.server.network.protocol.WorldStateDTO;
-import com.paperio.server.util.PlayerMapper;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.Point;
-import org.springframework.web.socket.CloseStatus;
-import org.springframework.web.socket.TextMessage;
-import org.springframework.web.socket.WebSocketSession;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 @Slf4j
 public class GameRoom {
@@ -31,10 +51,11 @@ public class GameRoom {
     private final GameProperties props;
     private final PhysicsProcessor physicsProcessor;
     private final CollisionProcessor collisionProcessor;
-    private final ObjectMapper objectMapper;
     private final EntityFactory entityFactory;
+    private final ForkJoinPool tickPool;
 
     private final SpatialGrid spatialGrid;
+    private final InterestManager interest;
     private final GeometryFactory geoFactory = new GeometryFactory();
 
     private final Lock tickLock = new ReentrantLock();
@@ -42,106 +63,355 @@ public class GameRoom {
     @Getter
     private final long createdAt = System.currentTimeMillis();
 
+    // Simulation roster, changed only inside the tick; members tracks joined sessions and bots immediately
     private final Map<String, Player> players = new ConcurrentHashMap<>();
-    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
-    private final List<BotController> botControllers = new CopyOnWriteArrayList<>();
+    private final Set<String> members = ConcurrentHashMap.newKeySet();
+    private final Map<String, SessionSender> senders = new ConcurrentHashMap<>();
+    private final Map<String, ClientView> views = new ConcurrentHashMap<>();
+    private final AtomicInteger nextNetId = new AtomicInteger(1);
+    private final Queue<String> departures = new ConcurrentLinkedQueue<>();
+    private final Queue<Player> arrivals = new ConcurrentLinkedQueue<>();
+    private final InputRing inputs;
+    private final RasterTerritoryMap raster;
+    private RoomJournal journal;
+    private long tickCount = 0;
+
+    private final ObjectMapper objectMapper;
+    private final Executor outboundExecutor;
+    private final FrameEncoder jsonEncoder;
+    private final FrameEncoder binaryEncoder;
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder droppedFrames = new LongAdder();
 
     public GameRoom(String roomId, GameProperties props, EntityFactory entityFactory,
                     PhysicsProcessor physicsProcessor, CollisionProcessor collisionProcessor,
-                    ObjectMapper objectMapper) {
+                    ObjectMapper objectMapper, ForkJoinPool tickPool, Executor outboundExecutor, boolean journaled) {
         this.roomId = roomId;
         this.props = props;
         this.entityFactory = entityFactory;
         this.physicsProcessor = physicsProcessor;
         this.collisionProcessor = collisionProcessor;
+        this.tickPool = tickPool;
         this.objectMapper = objectMapper;
+        this.outboundExecutor = outboundExecutor;
+        this.jsonEncoder = new JsonFrameEncoder(objectMapper, props.lod().farSimplifyTolerance());
+        this.binaryEncoder = new BinaryFrameEncoder(props.lod().farSimplifyTolerance());
+        this.inputs = new InputRing(Math.max(64, props.room().maxPlayers() * 16));
         this.spatialGrid = new SpatialGrid(props.map().width(), props.map().height(), props.map().gridCellSize());
+        this.interest = new InterestManager(spatialGrid, props.room().visibilityRadius(),
+                props.room().visibilityHysteresis());
+        this.raster = props.territory().mode() == GameProperties.TerritoryMode.RASTER
+                ? new RasterTerritoryMap(props.map(), props.territory().rasterCellSize())
+                : null;
+        if (journaled) openJournal();
+    }
+
+    private void openJournal() {
+        Path file = Path.of(props.journal().directory(), roomId + ".journal");
+        try {
+            journal = RoomJournal.create(file, props.journal().segmentBytes(), props.loop().tickRate());
+            log.info("Journaling room {} to {}", roomId, file);
+        } catch (IOException e) {
+            log.error("Failed to open journal for room {}, running without one", roomId, e);
+        }
+    }
+
+    public void addPlayer(ClientSession session, Player player) {
+        player.setNetId(nextNetId.getAndIncrement());
+        if (session != null) {
+            var sender = new SessionSender(session, outboundExecutor, props.network().controlQueueCapacity(),
+                    props.network().maxStaleFrames(), droppedFrames);
+            sender.offerControl(initMessage(session, player));
+            senders.put(session.getId(), sender);
+            views.put(session.getId(), new ClientView(props.network().keyframeInterval(), props.lod(), session.getFormat()));
+        }
+        members.add(player.getId());
+        arrivals.add(player);
     }
 
-    public void addPlayer(WebSocketSession session, Player player) {
-        if (session != null) sessions.put(session.getId(), session);
-        players.put(player.getId(), player);
+    private OutboundFrame initMessage(ClientSession session, Player player) {
+        try {
+            return OutboundFrame.text(objectMapper.writeValueAsBytes(
+                    new InitPacket("INIT", session.getId(), player.getNetId())));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode INIT packet", e);
+        }
     }
 
     public void removePlayer(String sessionId) {
-        sessions.remove(sessionId);
-        players.remove(sessionId);
+        senders.remove(sessionId);
+        views.remove(sessionId);
+        if (members.remove(sessionId)) departures.add(sessionId);
     }
 
-    public void handleInput(String sessionId, double x, double y) {
+    /**
+     * Called from WebSocket threads; the input only reaches the player when the tick drains the ring.
+     * If the ring is full the input is dropped, which coalescing makes harmless since only the latest counts.
+     */
+    public void handleInput(String sessionId, double x, double y, int seq) {
         var p = players.get(sessionId);
-        if (p != null) {
-            p.setTargetX(x);
-            p.setTargetY(y);
-        }
+        if (p != null) inputs.offer(p, x, y, seq);
+    }
+
+    /** Coalesces drained inputs: the newest sequence number per player wins; seq 0 means an unsequenced client. */
+    private void applyInput(Player p, double x, double y, int seq) {
+        if (journal != null) journal.input(p.getNetId(), x, y, seq);
+        if (seq != 0 && seq - p.getLastInputSeq() <= 0) return;
+        p.setTargetX(x);
+        p.setTargetY(y);
+        if (seq != 0) p.setLastInputSeq(seq);
     }
 
     public int getPlayerCount() {
-        return players.size();
+        return members.size();
     }
 
-    public void tick() {
-        if (!tickLock.tryLock()) {
-            return;
-        }
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    public long getFramesSent() {
+        return framesSent.sum();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.sum();
+    }
+
+    public int getOutboundQueueDepth() {
+        return senders.values().stream().mapToInt(SessionSender::queueDepth).sum();
+    }
 
+    public int getMaxTerritoryVertices() {
+        return players.values().stream().mapToInt(Player::getTerritoryVertices).max().orElse(0);
+    }
+
+    public int getTotalTerritoryVertices() {
+        return players.values().stream().mapToInt(Player::getTerritoryVertices).sum();
+    }
+
+    /**
+     * Joins, departures and inputs only enter the simulation here, in that order, so a tick is a pure function of
+     * the previous state and what the journal records for it.
+     */
+    public void tick() {
+        tickLock.lock();
         try {
+            tickCount++;
+            if (journal != null) journal.tick(tickCount);
+
+            Player arrived;
+            while ((arrived = arrivals.poll()) != null) join(arrived);
+            String departed;
+            while ((departed = departures.poll()) != null) {
+                Player p = players.get(departed);
+                if (p != null) depart(p);
+            }
             if (players.isEmpty()) return;
 
-            botControllers.forEach(BotController::tick);
+            inputs.drain(this::applyInput);
 
-            for (Player p : players.values()) {
-                if (p.isAlive()) {
-                    physicsProcessor.movePlayer(p, props.map(), players.values());
-                }
+            long commitDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(props.territory().commitTimeoutMs());
+            simulate(p -> {
+                if (p.getPendingConquest().awaitUntil(commitDeadline)) return true;
+                if (journal != null) journal.deferConquest(p.getNetId());
+                return false;
+            });
+
+            if (journal != null && tickCount % props.journal().checkpointInterval() == 0) {
+                journal.checkpoint(stateHash());
             }
 
-            spatialGrid.clear();
-            for (Player p : players.values()) {
-                if (p.isAlive()) {
-                    spatialGrid.insert(p);
+            broadcast();
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    /** Re-runs one journaled tick without network side effects; returns the state hash after it. */
+    public long replayTick(JournalTick recorded) {
+        tickLock.lock();
+        try {
+            tickCount = recorded.tick();
+            for (JournalTick.Spawn spawn : recorded.spawns()) {
+                Player p = entityFactory.restore(spawn);
+                members.add(p.getId());
+                join(p);
+            }
+
+            Map<Integer, Player> byNetId = new HashMap<>();
+            for (Player p : players.values()) byNetId.put(p.getNetId(), p);
+            for (int netId : recorded.leaves()) {
+                Player p = byNetId.get(netId);
+                if (p != null && players.containsKey(p.getId())) {
+                    members.remove(p.getId());
+                    depart(p);
                 }
             }
+            if (players.isEmpty()) return stateHash();
+
+            for (JournalTick.Input input : recorded.inputs()) {
+                Player p = byNetId.get(input.netId());
+                if (p != null) applyInput(p, input.x(), input.y(), input.seq());
+            }
+            simulate(p -> !recorded.deferredConquests().contains(p.getNetId()));
+            return stateHash();
+        } finally {
+            tickLock.unlock();
+        }
+    }
 
-            collisionProcessor.processCollisions(spatialGrid, players.values());
+    private void join(Player p) {
+        players.put(p.getId(), p);
+        if (raster != null) raster.paintDisc(p.getNetId(), p.getX(), p.getY(), props.physics().startRadius());
+        if (journal != null) journal.spawn(p);
+    }
 
-            players.values().removeIf(p -> {
-                if (!p.isAlive()) {
-                    handleDeath(p);
-                    return true;
-                }
-                return false;
+    private void depart(Player p) {
+        players.remove(p.getId());
+        physicsProcessor.abandonConquest(p);
+        spatialGrid.remove(p);
+        interest.forget(p);
+        if (raster != null) raster.release(p.getNetId());
+        if (journal != null) journal.leave(p.getNetId());
+    }
+
+    /** {@code commitGate} decides whether a due conquest commits this tick or waits for a later one. */
+    private void simulate(Predicate<Player> commitGate) {
+        physicsProcessor.commitConquests(players.values(), commitGate);
+
+        // Phases below touch only their own player (or read shared state), so they may fan out across the
+        // tick pool; anything writing shared state runs serially in net id order.
+        List<Player> order = players.values().stream()
+                .sorted(Comparator.comparingInt(Player::getNetId))
+                .toList();
+
+        forEachPlayer(order, p -> {
+            if (p.isAlive() && p.getBotController() != null) p.getBotController().tick(interest.visibleTo(p));
+        });
+
+        forEachPlayer(order, p -> {
+            if (p.isAlive()) physicsProcessor.movePlayer(p, props.map());
+        });
+
+        if (raster != null) {
+            for (Player p : order) {
+                if (p.isAlive()) physicsProcessor.processRasterTrail(p, raster);
+            }
+            syncRasterTerritories();
+        } else {
+            forEachPlayer(order, p -> {
+                if (p.isAlive()) physicsProcessor.processTrail(p);
             });
+        }
 
-            broadcast();
+        for (Player p : order) {
+            spatialGrid.update(p);
+        }
+
+        List<List<Player>> kills = new ArrayList<>(order.size());
+        for (int i = 0; i < order.size(); i++) kills.add(new ArrayList<>(1));
+        forEachIndex(order.size(), i -> collisionProcessor.detectKills(spatialGrid, order.get(i), kills.get(i)));
+        collisionProcessor.resolve(spatialGrid, order, kills, raster == null);
+
+        players.values().removeIf(p -> {
+            if (!p.isAlive()) {
+                members.remove(p.getId());
+                physicsProcessor.abandonConquest(p);
+                spatialGrid.remove(p);
+                interest.forget(p);
+                if (raster != null) raster.release(p.getNetId());
+                handleDeath(p);
+                return true;
+            }
+            return false;
+        });
+
+        forEachPlayer(order, p -> {
+            if (p.isAlive()) interest.update(p);
+        });
+    }
+
+    /** FNV-1a over the simulation state that matters for divergence, in net id order. */
+    private long stateHash() {
+        long h = 0xcbf29ce484222325L;
+        List<Player> order = players.values().stream()
+                .sorted(Comparator.comparingInt(Player::getNetId))
+                .toList();
+        for (Player p : order) {
+            h = mix(h, p.getNetId());
+            h = mix(h, Double.doubleToLongBits(p.getX()));
+            h = mix(h, Double.doubleToLongBits(p.getY()));
+            h = mix(h, Double.doubleToLongBits(p.getAngle()));
+            h = mix(h, p.getScore());
+            h = mix(h, p.getTrail().size());
+            h = mix(h, Double.doubleToLongBits(p.getTerritory().getArea()));
+        }
+        return h;
+    }
+
+    private static long mix(long h, long v) {
+        return (h ^ v) * 0x100000001b3L;
+    }
+
+    /** Flushes and closes the journal; later ticks are no longer recorded. */
+    public void close() {
+        tickLock.lock();
+        try {
+            if (journal == null) return;
+            journal.close();
+            journal = null;
+        } catch (IOException e) {
+            log.error("Failed to close journal for room {}", roomId, e);
         } finally {
             tickLock.unlock();
         }
     }
 
-    private void handleDeath(Player p) {
-        if (p.isBot()) {
-            botControllers.remove(p.getBotController());
+    private void forEachPlayer(List<Player> order, Consumer<Player> action) {
+        forEachIndex(order.size(), i -> action.accept(order.get(i)));
+    }
+
+    private void forEachIndex(int count, IntConsumer action) {
+        if (count < props.room().parallelThreshold()) {
+            for (int i = 0; i < count; i++) action.accept(i);
         } else {
-            closeSession(p);
+            tickPool.submit(() -> IntStream.range(0, count).parallel().forEach(action)).join();
         }
     }
 
-    private void closeSession(Player p) {
-        var session = sessions.remove(p.getId());
-        if (session != null && session.isOpen()) {
-            try { session.close(new CloseStatus(4000, "DEATH")); }
-            catch (Exception ignored) {}
+    /** Re-extracts polygons and scores for owners whose cells changed this tick; owners left with no cells die. */
+    private void syncRasterTerritories() {
+        for (Player p : players.values()) {
+            int netId = p.getNetId();
+            if (!raster.isDirty(netId)) continue;
+            if (raster.cellCount(netId) == 0) {
+                p.setAlive(false);
+                continue;
+            }
+            p.setTerritory(raster.extract(netId, geoFactory));
+            p.setScore((int) (raster.area(netId) / 300.0));
         }
+        raster.clearDirty();
+    }
+
+    private void handleDeath(Player p) {
+        if (!p.isBot()) closeSession(p);
+    }
+
+    private void closeSession(Player p) {
+        views.remove(p.getId());
+        var sender = senders.remove(p.getId());
+        if (sender != null) sender.close(CloseReason.DEATH);
     }
 
     public void maintainPopulation() {
         if (tickLock.tryLock()) {
             try {
-                int currentCount = players.size();
+                int currentCount = members.size();
                 if (currentCount < props.room().botTarget() && currentCount < props.room().maxPlayers()) {
                     Player bot = entityFactory.createBot();
-                    botControllers.add(bot.getBotController());
                     this.addPlayer(null, bot);
                 }
             } finally {
@@ -151,8 +421,8 @@ public class GameRoom {
     }
 
     private void broadcast() {
-        Map<String, PlayerDTO> allPlayerDTOs = players.values().stream()
-                .collect(Collectors.toMap(Player::getId, PlayerMapper::toDTO));
+        jsonEncoder.beginTick();
+        binaryEncoder.beginTick();
 
         var leaderboard = players.values().stream()
                 .filter(Player::isAlive)
@@ -162,37 +432,30 @@ public class GameRoom {
                 .toList();
 
         int allPlayersCount = players.size();
+        long timestamp = System.currentTimeMillis();
 
-        sessions.forEach((sessionId, session) -> {
-            if (!session.isOpen()) return;
+        senders.forEach((sessionId, sender) -> {
+            if (!sender.isOpen()) return;
 
             Player me = players.get(sessionId);
-            if (me == null) return;
-
-            List<PlayerDTO> visiblePlayers = players.values().stream()
-                    .filter(other -> isVisible(me, other))
-                    .map(other -> allPlayerDTOs.get(other.getId()))
-                    .toList();
+            ClientView view = views.get(sessionId);
+            if (me == null || view == null) return;
+            // The unsent frame is about to be superseded, so the client would miss that delta
+            if (sender.isBacklogged()) view.requestKeyframe();
 
-            WorldStateDTO state = new WorldStateDTO(System.currentTimeMillis(), allPlayersCount, visiblePlayers, leaderboard);
+            WorldFrame frame = view.nextFrame(timestamp, allPlayersCount, me, interest.visibleTo(me), leaderboard);
+            FrameEncoder encoder = view.getFormat() == WireFormat.BINARY ? binaryEncoder : jsonEncoder;
 
             try {
-                session.sendMessage(new TextMessage(objectMapper.writeValueAsString(state)));
-            } catch (Exception e) {
-                log.debug("Failed to send AOI update to {}", me.getName());
+                OutboundFrame message = encoder.encode(frame);
+                int length = message.length();
+                sender.offerState(message);
+                bytesSent.add(length);
+                framesSent.increment();
+            } catch (IOException e) {
+                view.requestKeyframe();
+                log.debug("Failed to encode AOI update for {}", me.getName());
             }
         });
     }
-
-    private boolean isVisible(Player observer, Player target) {
-        if (observer.getId().equals(target.getId())) return true;
-        double r = props.room().visibilityRadius();
-        Envelope visionEnvelope = new Envelope(
-                observer.getX() - r, observer.getX() + r,
-                observer.getY() - r, observer.getY() + r
-        );
-        if (target.getTerritory().getEnvelopeInternal().intersects(visionEnvelope)) return true;
-        Point head = geoFactory.createPoint(new Coordinate(target.getX(), target.getY()));
-        return visionEnvelope.intersects(head.getCoordinate());
-    }
 }
\ No newline at end of file
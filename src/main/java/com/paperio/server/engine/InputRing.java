@@ -0,0 +1,78 @@
+package com.paperio.server.engine;
+
+import com.paperio.server.model.Player;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded multi-producer, single-consumer ring of player inputs (after Vyukov's bounded queue). WebSocket
+ * threads {@link #offer} concurrently; only the room's tick thread {@link #drain}s. Each slot carries a
+ * sequence number that tells producers when it is free and the consumer when it is published, so no locks
+ * are taken and the slot contents are safely published by the release/acquire on that sequence.
+ */
+public class InputRing {
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final Player[] players;
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] seqs;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(Player player, double x, double y, int seq);
+    }
+
+    public InputRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequences.set(i, i);
+        this.players = new Player[size];
+        this.xs = new double[size];
+        this.ys = new double[size];
+        this.seqs = new int[size];
+    }
+
+    /** Enqueues an input; returns false if the ring is full and the input was dropped. */
+    public boolean offer(Player player, double x, double y, int seq) {
+        long pos = tail.get();
+        while (true) {
+            int idx = (int) (pos & mask);
+            long diff = sequences.getAcquire(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+
+        int idx = (int) (pos & mask);
+        players[idx] = player;
+        xs[idx] = x;
+        ys[idx] = y;
+        seqs[idx] = seq;
+        sequences.setRelease(idx, pos + 1);
+        return true;
+    }
+
+    /** Hands every published input to the consumer in arrival order; tick thread only. */
+    public void drain(Consumer consumer) {
+        while (true) {
+            int idx = (int) (head & mask);
+            if (sequences.getAcquire(idx) != head + 1) return;
+
+            Player player = players[idx];
+            players[idx] = null;
+            consumer.accept(player, xs[idx], ys[idx], seqs[idx]);
+            sequences.setRelease(idx, head + mask + 1);
+            head++;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.paperio.server.engine;
+
+import com.paperio.server.model.Player;
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-observer area of interest, maintained incrementally from the room's {@link SpatialGrid}. A player enters
+ * an observer's set when its head or territory envelope comes within the enter radius and only leaves once it
+ * is beyond the larger leave radius, so entities near the edge do not flicker in and out.
+ * <p>
+ * {@link #update} may run for different observers in parallel; everything else belongs to the tick thread.
+ */
+public class InterestManager {
+    private final SpatialGrid grid;
+    private final double enterRadius;
+    private final double leaveRadius;
+    private final Map<Player, Set<Player>> interests = new ConcurrentHashMap<>();
+    private final ThreadLocal<SpatialGrid.Candidates> candidates = ThreadLocal.withInitial(SpatialGrid.Candidates::new);
+
+    public InterestManager(SpatialGrid grid, double enterRadius, double hysteresis) {
+        this.grid = grid;
+        this.enterRadius = enterRadius;
+        this.leaveRadius = enterRadius * (1 + hysteresis);
+    }
+
+    public void update(Player observer) {
+        Set<Player> visible = interests.computeIfAbsent(observer, k -> new LinkedHashSet<>());
+        double x = observer.getX();
+        double y = observer.getY();
+
+        visible.removeIf(other -> other != observer && !(other.isAlive() && inRange(other, x, y, leaveRadius)));
+        visible.add(observer);
+
+        SpatialGrid.Candidates nearby = candidates.get();
+        grid.queryNearby(x - enterRadius, x + enterRadius, y - enterRadius, y + enterRadius, nearby);
+        for (int i = 0; i < nearby.size(); i++) {
+            Player other = nearby.get(i);
+            if (other.isAlive() && inRange(other, x, y, enterRadius)) visible.add(other);
+        }
+    }
+
+    /** The observer's current interest set, including itself; read-only for callers. */
+    public Set<Player> visibleTo(Player observer) {
+        return interests.getOrDefault(observer, Set.of());
+    }
+
+    public void forget(Player p) {
+        interests.remove(p);
+        for (Set<Player> visible : interests.values()) visible.remove(p);
+    }
+
+    private static boolean inRange(Player target, double x, double y, double r) {
+        if (Math.abs(target.getX() - x) <= r && Math.abs(target.getY() - y) <= r) return true;
+        Envelope env = target.getTerritory().getEnvelopeInternal();
+        return env.getMaxX() >= x - r && env.getMinX() <= x + r && env.getMaxY() >= y - r && env.getMinY() <= y + r;
+    }
+}
@@ -0,0 +1,63 @@
+package com.paperio.server.engine;
+
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A loop closure whose geometry is being computed off the tick thread.
+ * It becomes due {@code commitDelayTicks} ticks after submission; if the worker is still busy by then, the tick
+ * waits only up to a deadline and the commit moves to a later tick.
+ */
+public class PendingConquest {
+    private final Future<Result> result;
+    private final int baseVersion;
+    private int ticksLeft;
+
+    public PendingConquest(Future<Result> result, int baseVersion, int commitDelayTicks) {
+        this.result = result;
+        this.baseVersion = baseVersion;
+        this.ticksLeft = commitDelayTicks;
+    }
+
+    public Future<Result> result() {
+        return result;
+    }
+
+    /** Territory version the job was computed against; a mismatch at commit means the territory was cut meanwhile. */
+    public int baseVersion() {
+        return baseVersion;
+    }
+
+    /** Stops the worker if it has not finished; used when the owner dies or leaves before the commit. */
+    public void cancel() {
+        result.cancel(true);
+    }
+
+    public boolean countDown() {
+        return --ticksLeft <= 0;
+    }
+
+    /** Waits for the worker until the deadline; false if the result is still not ready. */
+    public boolean awaitUntil(long deadlineNanos) {
+        if (result.isDone()) return true;
+        try {
+            result.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | CancellationException e) {
+            // Done, just unsuccessfully; the commit reports it
+            return true;
+        }
+    }
+
+    public record Result(Geometry territory, Geometry gained) {}
+}
@@ -2,25 +2,44 @@ package com.paperio.server.engine;
 
 import com.paperio.server.config.GameProperties;
 import com.paperio.server.model.Player;
+import com.paperio.server.model.Trail;
 import com.paperio.server.service.GeometryService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.operation.union.UnaryUnionOp;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class PhysicsProcessor {
     private final GeometryService geoService;
     private final GameProperties props;
-    private final GeometryFactory factory = new GeometryFactory();
+    private final ExecutorService conquestExecutor;
+
+    public PhysicsProcessor(GeometryService geoService, GameProperties props,
+                            @Qualifier("conquestExecutor") ExecutorService conquestExecutor) {
+        this.geoService = geoService;
+        this.props = props;
+        this.conquestExecutor = conquestExecutor;
+    }
+
+    public void movePlayer(Player p, GameProperties.MapConfig map) {
+        p.setPrevX(p.getX());
+        p.setPrevY(p.getY());
 
-    public void movePlayer(Player p, GameProperties.MapConfig map, Collection<Player> allPlayers) {
         double targetAngle = Math.atan2(p.getTargetY() - p.getY(), p.getTargetX() - p.getX());
         double diff = targetAngle - p.getAngle();
         while (diff <= -Math.PI) diff += 2 * Math.PI;
@@ -34,62 +53,176 @@ public class PhysicsProcessor {
 
         p.setX(Math.clamp(p.getX(), 0, map.width()));
         p.setY(Math.clamp(p.getY(), 0, map.height()));
+    }
 
-        processTrail(p, allPlayers);
+    public void processTrail(Player p) {
+        if (!p.getTerritoryLocator().isWithin(p.getX(), p.getY(), props.combat().trailSafetyBuffer())) {
+            extendTrail(p);
+        } else if (!p.getTrail().isEmpty() && p.getPendingConquest() == null) {
+            submitConquest(p);
+        }
+    }
+
+    /** Raster-mode counterpart of {@link #processTrail}: closure is a synchronous, box-bounded flood fill. */
+    public void processRasterTrail(Player p, RasterTerritoryMap raster) {
+        Trail trail = p.getTrail();
+        if (!raster.isOwnedBy(p.getNetId(), p.getX(), p.getY())) {
+            extendTrail(p);
+        } else if (!trail.isEmpty()) {
+            raster.conquer(p.getNetId(), trail, p.getX(), p.getY());
+            trail.clear();
+        }
     }
 
-    private void processTrail(Player p, Collection<Player> allPlayers) {
-        Coordinate currentPos = new Coordinate(p.getX(), p.getY());
-        var headPoint = factory.createPoint(currentPos);
+    private void extendTrail(Player p) {
         double buffer = props.combat().trailSafetyBuffer();
+        Trail trail = p.getTrail();
+        if (trail.isEmpty() || Math.hypot(p.getX() - trail.lastX(), p.getY() - trail.lastY()) > buffer) {
+            trail.add(p.getX(), p.getY());
+        }
+    }
+
+    /**
+     * Hands the closed loop to the conquest pool. The trail is cleared right away so the player can keep
+     * moving; a second closure waits in the trail until this one is committed.
+     */
+    private void submitConquest(Player p) {
+        Geometry baseTerritory = p.getTerritory();
+        CoordinateSequence loop = p.getTrail().asSequence().copy();
+        p.getTrail().clear();
+
+        var job = conquestExecutor.submit(() -> {
+            Geometry conquered = geoService.enforceVertexBudget(geoService.conquer(baseTerritory, loop));
+            return new PendingConquest.Result(conquered, conquered.difference(baseTerritory));
+        });
+        p.setPendingConquest(new PendingConquest(job, p.getTerritoryVersion(), props.territory().commitDelayTicks()));
+    }
 
-        if (!p.getTerritory().intersects(headPoint.buffer(buffer))) {
-            if (p.getTrailPoints().isEmpty() || currentPos.distance(p.getTrailPoints().getLast()) > buffer) {
-                p.getTrailPoints().add(currentPos);
+    /**
+     * Re-applies a gain onto a territory that was cut since its conquest was submitted. The union runs on the
+     * conquest pool like the conquest itself and commits on the next tick.
+     */
+    private PendingConquest rebase(Player p, Geometry gained) {
+        Geometry current = p.getTerritory();
+        var job = conquestExecutor.submit(() ->
+                new PendingConquest.Result(geoService.enforceVertexBudget(current.union(gained)), gained));
+        return new PendingConquest(job, p.getTerritoryVersion(), 1);
+    }
+
+    /** Drops the owner's in-flight conquest, stopping its worker; called when the owner dies or leaves. */
+    public void abandonConquest(Player p) {
+        PendingConquest pending = p.getPendingConquest();
+        if (pending == null) return;
+        pending.cancel();
+        p.setPendingConquest(null);
+    }
+
+    /**
+     * Applies conquests whose delay has elapsed. Called once at the start of every tick, so a closure
+     * submitted in tick N lands in tick N + commitDelayTicks unless {@code ready} rejects it; a rejected
+     * conquest stays pending and is offered again next tick. A conquest whose owner was cut meanwhile is rebased
+     * off the tick thread and commits a tick later. Claims are committed in net id order and their steals are
+     * applied in one batch afterwards.
+     */
+    public void commitConquests(Collection<Player> allPlayers, Predicate<Player> ready) {
+        List<Player> due = new ArrayList<>();
+        for (Player p : allPlayers) {
+            PendingConquest pending = p.getPendingConquest();
+            if (pending != null && pending.countDown()) due.add(p);
+        }
+        if (due.isEmpty()) return;
+        due.sort(Comparator.comparingInt(Player::getNetId));
+
+        List<Claim> claims = new ArrayList<>();
+        for (Player p : due) {
+            PendingConquest pending = p.getPendingConquest();
+            if (p.isAlive() && !ready.test(p)) continue;
+            p.setPendingConquest(null);
+            if (!p.isAlive()) {
+                pending.cancel();
+                continue;
             }
-        } else if (!p.getTrailPoints().isEmpty()) {
-            try {
-                Geometry oldTerritory = p.getTerritory();
 
-                Geometry newTerritory = geoService.conquer(oldTerritory, p.getTrailPoints());
+            try {
+                PendingConquest.Result result = pending.result().get();
+                Geometry gained = result.gained();
 
-                Geometry gainedTerritory = newTerritory.difference(oldTerritory);
+                // The territory may have been cut by a steal or overlap since submission; rebase the gain onto it first.
+                if (p.getTerritoryVersion() != pending.baseVersion()) {
+                    p.setPendingConquest(rebase(p, gained));
+                    continue;
+                }
+                Geometry newTerritory = result.territory();
 
                 p.setTerritory(newTerritory);
-                p.getTrailPoints().clear();
                 p.setScore((int) (newTerritory.getArea() / 300.0));
 
-                if (!gainedTerritory.isEmpty()) {
-                    stealTerritory(p, gainedTerritory, allPlayers);
+                if (!gained.isEmpty()) {
+                    claims.add(new Claim(claims.size(), p, gained));
                 }
-
-            } catch (Exception e) {
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | RuntimeException e) {
                 log.error("Error processing trail closure for player {}", p.getName(), e);
-                p.getTrailPoints().clear();
             }
         }
+
+        if (!claims.isEmpty()) {
+            stealTerritory(claims, allPlayers);
+        }
     }
 
-    private void stealTerritory(Player attacker, Geometry gainedTerritory, Collection<Player> allPlayers) {
-        for (Player victim : allPlayers) {
-            if (victim.getId().equals(attacker.getId())) continue;
-            if (!victim.isAlive()) continue;
+    /**
+     * Cuts every victim once by the union of the claims overlapping it. Where claims contest the same area the
+     * later one (higher net id) wins, so a claimant only loses its own gain to claims committed after it.
+     */
+    @SuppressWarnings("unchecked")
+    private void stealTerritory(List<Claim> claims, Collection<Player> allPlayers) {
+        STRtree index = new STRtree();
+        Map<Player, Claim> ownClaims = new HashMap<>();
+        for (Claim claim : claims) {
+            index.insert(claim.gained().getEnvelopeInternal(), claim);
+            ownClaims.put(claim.claimant(), claim);
+        }
+
+        List<Player> victims = allPlayers.stream()
+                .filter(Player::isAlive)
+                .sorted(Comparator.comparingInt(Player::getNetId))
+                .toList();
+
+        for (Player victim : victims) {
+            List<Claim> hits = index.query(victim.getTerritory().getEnvelopeInternal());
+            if (hits.isEmpty()) continue;
+
+            Claim own = ownClaims.get(victim);
+            List<Geometry> earlier = new ArrayList<>();
+            List<Geometry> taken = new ArrayList<>();
+            for (Claim claim : hits) {
+                if (claim == own) continue;
+                (own != null && claim.order() < own.order() ? earlier : taken).add(claim.gained());
+            }
 
             try {
-                if (victim.getTerritory().getEnvelopeInternal().intersects(gainedTerritory.getEnvelopeInternal())) {
-                    Geometry reduced = victim.getTerritory().difference(gainedTerritory);
+                if (!earlier.isEmpty()) {
+                    taken.add(UnaryUnionOp.union(earlier).difference(own.gained()));
+                }
+                if (taken.isEmpty()) continue;
 
-                    victim.setTerritory(reduced);
+                Geometry reduced = geoService.enforceVertexBudgetWithin(
+                        victim.getTerritory().difference(UnaryUnionOp.union(taken)));
+                victim.shrinkTerritory(reduced);
 
-                    if (victim.getTerritory().isEmpty()) {
-                        victim.setAlive(false);
-                    } else {
-                        victim.setScore((int) (victim.getTerritory().getArea() / 300.0));
-                    }
+                if (victim.getTerritory().isEmpty()) {
+                    victim.setAlive(false);
+                } else {
+                    victim.setScore((int) (victim.getTerritory().getArea() / 300.0));
                 }
             } catch (Exception e) {
                 log.debug("Topology error during territory stealing", e);
             }
         }
     }
+
+    private record Claim(int order, Player claimant, Geometry gained) {}
 }
\ No newline at end of file
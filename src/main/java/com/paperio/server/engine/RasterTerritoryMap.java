@@ -0,0 +1,316 @@
+package com.paperio.server.engine;
+
+import com.paperio.server.config.GameProperties;
+import com.paperio.server.model.Trail;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.operation.union.UnaryUnionOp;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Room-wide owner grid used by the raster territory mode. Each cell stores its owner's slot (0 = free),
+ * so conquest is a flood fill, stealing is cell reassignment and area is a counter. Owners touched since the
+ * last {@link #clearDirty()} are flagged dirty so their polygons are re-extracted only when they changed.
+ * <p>
+ * Owners are addressed by net id, which grows with every spawn for the life of the room; per-owner state is
+ * kept in dense slots instead, and a released owner's slot is recycled at the next {@link #clearDirty()}.
+ * Extracted polygons are cached per band of {@value #BAND_ROWS} rows, and only bands with changed cells are
+ * rebuilt.
+ * <p>
+ * Not thread-safe; only the room's tick thread may use it.
+ */
+public class RasterTerritoryMap {
+    private static final int FREE = 0;
+    private static final int BAND_ROWS = 16;
+
+    private final int cellSize;
+    private final int cols;
+    private final int rows;
+    private final int[] owners;
+    private final int[] visited;
+    private final int[] stack;
+    private int visitStamp = 0;
+
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final List<Integer> releasedSlots = new ArrayList<>();
+    private int slotCount = 1;
+
+    private int[] slotOwners = new int[64];
+    private int[] cellCounts = new int[64];
+    private int[] bounds = new int[64 * 4];
+    private Geometry[][] bandShapes = new Geometry[64][];
+    private BitSet[] dirtyBands = new BitSet[64];
+    private final BitSet dirty = new BitSet();
+
+    public RasterTerritoryMap(GameProperties.MapConfig map, int cellSize) {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil((double) map.width() / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil((double) map.height() / cellSize));
+        this.owners = new int[cols * rows];
+        this.visited = new int[cols * rows];
+        this.stack = new int[cols * rows];
+    }
+
+    public boolean isOwnedBy(int owner, double x, double y) {
+        int slot = slotOf(owner);
+        return slot >= 0 && owners[cellOf(x, y)] == slot;
+    }
+
+    public int cellCount(int owner) {
+        int slot = slotOf(owner);
+        return slot > FREE ? cellCounts[slot] : 0;
+    }
+
+    public double area(int owner) {
+        return (double) cellCount(owner) * cellSize * cellSize;
+    }
+
+    public boolean isDirty(int owner) {
+        int slot = slotOf(owner);
+        return slot > FREE && dirty.get(slot);
+    }
+
+    /** Ends the tick's change set; slots released since the last call become reusable. */
+    public void clearDirty() {
+        dirty.clear();
+        for (int slot : releasedSlots) {
+            slots.remove(slotOwners[slot]);
+            freeSlots.push(slot);
+        }
+        releasedSlots.clear();
+    }
+
+    /** Claims every cell whose centre lies within {@code radius} of the point, taking it from any current owner. */
+    public void paintDisc(int owner, double x, double y, double radius) {
+        int slot = slotFor(owner);
+        int minCol = colOf(x - radius), maxCol = colOf(x + radius);
+        int minRow = rowOf(y - radius), maxRow = rowOf(y + radius);
+        double r2 = radius * radius;
+        for (int row = minRow; row <= maxRow; row++) {
+            double dy = (row + 0.5) * cellSize - y;
+            for (int col = minCol; col <= maxCol; col++) {
+                double dx = (col + 0.5) * cellSize - x;
+                if (dx * dx + dy * dy <= r2) claim(row * cols + col, slot);
+            }
+        }
+    }
+
+    /**
+     * Claims the trail (closed onto the head position) and then every cell it encloses together with the
+     * owner's existing cells. The fill is bounded by the owner's bounding box, not by the map size.
+     */
+    public void conquer(int owner, Trail trail, double headX, double headY) {
+        if (trail.isEmpty()) return;
+        int slot = slotFor(owner);
+        claim(cellOf(trail.getX(0), trail.getY(0)), slot);
+        for (int i = 1; i < trail.size(); i++) {
+            claimSegment(slot, trail.getX(i - 1), trail.getY(i - 1), trail.getX(i), trail.getY(i));
+        }
+        claimSegment(slot, trail.lastX(), trail.lastY(), headX, headY);
+        fillEnclosed(slot);
+    }
+
+    /** Frees every cell of the owner, e.g. when the player dies or leaves, and retires its slot. */
+    public void release(int owner) {
+        int slot = slotOf(owner);
+        if (slot <= FREE || releasedSlots.contains(slot)) return;
+        if (cellCounts[slot] > 0) {
+            int b = slot * 4;
+            for (int row = bounds[b + 2]; row <= bounds[b + 3]; row++) {
+                for (int col = bounds[b]; col <= bounds[b + 1]; col++) {
+                    int cell = row * cols + col;
+                    if (owners[cell] == slot) owners[cell] = FREE;
+                }
+            }
+            cellCounts[slot] = 0;
+        }
+        Arrays.fill(bandShapes[slot], null);
+        dirtyBands[slot].clear();
+        dirty.set(slot);
+        releasedSlots.add(slot);
+    }
+
+    /**
+     * Builds the owner's territory polygon from horizontal cell runs. Only meant for owners that are dirty;
+     * bands whose cells did not change since the last extraction are reused, so only the changed rows are
+     * re-unioned. The staircase edges are smoothed by a half-cell simplification.
+     */
+    public Geometry extract(int owner, GeometryFactory factory) {
+        List<Geometry> shapes = new ArrayList<>();
+        int slot = slotOf(owner);
+        if (slot > FREE && cellCounts[slot] > 0) {
+            int b = slot * 4;
+            Geometry[] bands = bandShapes[slot];
+            BitSet changed = dirtyBands[slot];
+            int firstBand = bounds[b + 2] / BAND_ROWS, lastBand = bounds[b + 3] / BAND_ROWS;
+            for (int band = 0; band < bands.length; band++) {
+                if (band < firstBand || band > lastBand) {
+                    bands[band] = null;
+                    continue;
+                }
+                if (bands[band] == null || changed.get(band)) bands[band] = extractBand(slot, band, factory);
+                if (!bands[band].isEmpty()) shapes.add(bands[band]);
+            }
+            changed.clear();
+        }
+        Geometry merged = UnaryUnionOp.union(shapes, factory);
+        return TopologyPreservingSimplifier.simplify(merged, cellSize * 0.5);
+    }
+
+    private Geometry extractBand(int slot, int band, GeometryFactory factory) {
+        int b = slot * 4;
+        List<Geometry> runs = new ArrayList<>();
+        int fromRow = Math.max(bounds[b + 2], band * BAND_ROWS);
+        int toRow = Math.min(bounds[b + 3], band * BAND_ROWS + BAND_ROWS - 1);
+        for (int row = fromRow; row <= toRow; row++) {
+            int col = bounds[b];
+            while (col <= bounds[b + 1]) {
+                if (owners[row * cols + col] != slot) {
+                    col++;
+                    continue;
+                }
+                int start = col;
+                while (col <= bounds[b + 1] && owners[row * cols + col] == slot) col++;
+                runs.add(factory.toGeometry(new Envelope(
+                        (double) start * cellSize, (double) col * cellSize,
+                        (double) row * cellSize, (double) (row + 1) * cellSize)));
+            }
+        }
+        Geometry merged = UnaryUnionOp.union(runs, factory);
+        return merged == null ? factory.createPolygon() : merged;
+    }
+
+    private void claimSegment(int slot, double x0, double y0, double x1, double y1) {
+        double length = Math.hypot(x1 - x0, y1 - y0);
+        int steps = Math.max(1, (int) Math.ceil(length / (cellSize * 0.5)));
+        for (int s = 1; s <= steps; s++) {
+            double t = (double) s / steps;
+            claim(cellOf(x0 + (x1 - x0) * t, y0 + (y1 - y0) * t), slot);
+        }
+    }
+
+    /**
+     * Floods 4-connected from the border of the owner's bounding box (grown by one cell) through cells it does
+     * not own. Whatever the flood cannot reach is enclosed and gets claimed.
+     */
+    private void fillEnclosed(int slot) {
+        int b = slot * 4;
+        int minCol = Math.max(0, bounds[b] - 1), maxCol = Math.min(cols - 1, bounds[b + 1] + 1);
+        int minRow = Math.max(0, bounds[b + 2] - 1), maxRow = Math.min(rows - 1, bounds[b + 3] + 1);
+
+        int stamp = ++visitStamp;
+        int top = 0;
+        for (int col = minCol; col <= maxCol; col++) {
+            top = seed(minRow * cols + col, slot, stamp, top);
+            top = seed(maxRow * cols + col, slot, stamp, top);
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            top = seed(row * cols + minCol, slot, stamp, top);
+            top = seed(row * cols + maxCol, slot, stamp, top);
+        }
+
+        while (top > 0) {
+            int cell = stack[--top];
+            int row = cell / cols, col = cell % cols;
+            if (col > minCol) top = seed(cell - 1, slot, stamp, top);
+            if (col < maxCol) top = seed(cell + 1, slot, stamp, top);
+            if (row > minRow) top = seed(cell - cols, slot, stamp, top);
+            if (row < maxRow) top = seed(cell + cols, slot, stamp, top);
+        }
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                int cell = row * cols + col;
+                if (owners[cell] != slot && visited[cell] != stamp) claim(cell, slot);
+            }
+        }
+    }
+
+    private int seed(int cell, int slot, int stamp, int top) {
+        if (owners[cell] == slot || visited[cell] == stamp) return top;
+        visited[cell] = stamp;
+        stack[top] = cell;
+        return top + 1;
+    }
+
+    private void claim(int cell, int slot) {
+        int previous = owners[cell];
+        if (previous == slot) return;
+        int row = cell / cols, col = cell % cols;
+        if (previous != FREE) {
+            cellCounts[previous]--;
+            dirty.set(previous);
+            dirtyBands[previous].set(row / BAND_ROWS);
+        }
+        owners[cell] = slot;
+        dirty.set(slot);
+        dirtyBands[slot].set(row / BAND_ROWS);
+
+        int b = slot * 4;
+        if (cellCounts[slot]++ == 0) {
+            bounds[b] = bounds[b + 1] = col;
+            bounds[b + 2] = bounds[b + 3] = row;
+        } else {
+            bounds[b] = Math.min(bounds[b], col);
+            bounds[b + 1] = Math.max(bounds[b + 1], col);
+            bounds[b + 2] = Math.min(bounds[b + 2], row);
+            bounds[b + 3] = Math.max(bounds[b + 3], row);
+        }
+    }
+
+    /** Number of owner slots allocated so far; bounded by the peak owner count, not by net ids issued. */
+    int slotCapacity() {
+        return cellCounts.length;
+    }
+
+    /** Slot of a known owner, {@link #FREE} for owner 0, or -1 if the owner holds no slot. */
+    private int slotOf(int owner) {
+        if (owner == FREE) return FREE;
+        Integer slot = slots.get(owner);
+        return slot == null ? -1 : slot;
+    }
+
+    private int slotFor(int owner) {
+        int slot = slotOf(owner);
+        if (slot >= 0) return slot;
+        slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        if (slot >= cellCounts.length) {
+            int capacity = cellCounts.length * 2;
+            slotOwners = Arrays.copyOf(slotOwners, capacity);
+            cellCounts = Arrays.copyOf(cellCounts, capacity);
+            bounds = Arrays.copyOf(bounds, capacity * 4);
+            bandShapes = Arrays.copyOf(bandShapes, capacity);
+            dirtyBands = Arrays.copyOf(dirtyBands, capacity);
+        }
+        if (bandShapes[slot] == null) {
+            bandShapes[slot] = new Geometry[(rows + BAND_ROWS - 1) / BAND_ROWS];
+            dirtyBands[slot] = new BitSet();
+        }
+        cellCounts[slot] = 0;
+        slotOwners[slot] = owner;
+        slots.put(owner, slot);
+        return slot;
+    }
+
+    private int cellOf(double x, double y) {
+        return rowOf(y) * cols + colOf(x);
+    }
+
+    private int colOf(double x) {
+        return Math.clamp((long) Math.floor(x / cellSize), 0, cols - 1);
+    }
+
+    private int rowOf(double y) {
+        return Math.clamp((long) Math.floor(y / cellSize), 0, rows - 1);
+    }
+}
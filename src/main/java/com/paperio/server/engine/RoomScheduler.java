@@ -0,0 +1,112 @@
+package com.paperio.server.engine;
+
+import com.paperio.server.config.GameProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Assigns rooms to a fixed set of {@link RoomShard} threads, each running its rooms on a fixed-timestep loop.
+ * New rooms go to the least-loaded shard; a periodic pass migrates a room from the busiest shard to the idlest
+ * one when their load differs by more than the configured ratio.
+ */
+@Component
+@Slf4j
+public class RoomScheduler {
+    private final long stepNanos;
+    private final int maxCatchUpTicks;
+    private final double rebalanceRatio;
+    private final RoomShard[] shards;
+    private final Map<String, RoomShard.Slot> slots = new ConcurrentHashMap<>();
+    // Counts of rooms that have stopped, so the totals do not drop when a room goes away
+    private final LongAdder retiredOverruns = new LongAdder();
+    private final LongAdder retiredSkipped = new LongAdder();
+
+    public RoomScheduler(GameProperties props) {
+        this.stepNanos = TimeUnit.SECONDS.toNanos(1) / props.loop().tickRate();
+        this.maxCatchUpTicks = props.loop().maxCatchUpTicks();
+        this.rebalanceRatio = props.loop().rebalanceRatio();
+        this.shards = new RoomShard[Math.max(1, props.loop().shards())];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new RoomShard(i, stepNanos, this::retire);
+        }
+    }
+
+    @PostConstruct
+    public void startShards() {
+        for (RoomShard shard : shards) shard.start();
+    }
+
+    @PreDestroy
+    public void stopShards() {
+        for (RoomShard shard : shards) shard.shutdown();
+    }
+
+    public void start(GameRoom room) {
+        var slot = new RoomShard.Slot(room, new TickClock(stepNanos, maxCatchUpTicks, System.nanoTime()), stepNanos);
+        // The owner must be set before the slot is published, since leastLoaded() groups slots by owner
+        RoomShard target = leastLoaded();
+        slot.owner = target;
+        if (slots.putIfAbsent(room.getRoomId(), slot) != null) return;
+
+        target.post(() -> target.adopt(slot));
+    }
+
+    public void stop(GameRoom room) {
+        var slot = slots.remove(room.getRoomId());
+        if (slot != null) slot.stopped = true;
+    }
+
+    @Scheduled(fixedRateString = "${game.loop.rebalance-interval-ms}")
+    public void rebalance() {
+        RoomShard busiest = shards[0];
+        RoomShard idlest = shards[0];
+        for (RoomShard shard : shards) {
+            if (shard.getUtilization() > busiest.getUtilization()) busiest = shard;
+            if (shard.getUtilization() < idlest.getUtilization()) idlest = shard;
+        }
+        if (busiest == idlest || busiest.getUtilization() <= idlest.getUtilization() * rebalanceRatio) return;
+
+        RoomShard from = busiest;
+        RoomShard to = idlest;
+        double gap = (from.getUtilization() - to.getUtilization()) / 2;
+        from.post(() -> {
+            var moved = from.release(gap);
+            if (moved == null) return;
+            log.debug("Migrating room {} from shard {} to shard {}", moved.room.getRoomId(), from.getIndex(), to.getIndex());
+            to.post(() -> to.adopt(moved));
+        });
+    }
+
+    private void retire(RoomShard.Slot slot) {
+        retiredOverruns.add(slot.clock.getOverruns());
+        retiredSkipped.add(slot.clock.getSkipped());
+    }
+
+    public long getOverrunTicks() {
+        return retiredOverruns.sum() + slots.values().stream().mapToLong(s -> s.clock.getOverruns()).sum();
+    }
+
+    public long getSkippedTicks() {
+        return retiredSkipped.sum() + slots.values().stream().mapToLong(s -> s.clock.getSkipped()).sum();
+    }
+
+    private RoomShard leastLoaded() {
+        Map<RoomShard, Long> roomCounts = slots.values().stream()
+                .collect(Collectors.groupingBy(s -> s.owner, Collectors.counting()));
+        return Arrays.stream(shards)
+                .min(Comparator.comparingDouble(RoomShard::getUtilization)
+                        .thenComparingLong(shard -> roomCounts.getOrDefault(shard, 0L)))
+                .orElseThrow();
+    }
+}
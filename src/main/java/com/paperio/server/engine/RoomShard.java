@@ -0,0 +1,154 @@
+package com.paperio.server.engine;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * One platform thread that owns a set of rooms: it runs their fixed-timestep ticks (and with them, their
+ * broadcasts) and their bot population upkeep, so a room's state only ever lives on this thread. Rooms are
+ * handed over through the mailbox, which is also how the scheduler migrates rooms between shards.
+ */
+@Slf4j
+public class RoomShard implements Runnable {
+    private static final long HOUSEKEEPING_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double LOAD_SMOOTHING = 0.05;
+
+    @Getter private final int index;
+    private final long stepNanos;
+    private final Consumer<Slot> onRetired;
+    private final Thread thread;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final List<Slot> slots = new ArrayList<>();
+    private volatile boolean running = true;
+
+    /** Fraction of wall time this shard spends ticking, from the smoothed per-room tick times. */
+    @Getter private volatile double utilization;
+
+    /** {@code onRetired} is called on this shard's thread once a stopped room has ticked for the last time. */
+    public RoomShard(int index, long stepNanos, Consumer<Slot> onRetired) {
+        this.index = index;
+        this.stepNanos = stepNanos;
+        this.onRetired = onRetired;
+        this.thread = Thread.ofPlatform().name("room-shard-" + index).daemon().unstarted(this);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    public void post(Runnable task) {
+        mailbox.add(task);
+        LockSupport.unpark(thread);
+    }
+
+    /** Must run on this shard's thread, i.e. from a posted task. */
+    void adopt(Slot slot) {
+        slot.owner = this;
+        slots.add(slot);
+    }
+
+    /**
+     * Must run on this shard's thread. Detaches the busiest room whose load does not exceed {@code maxLoad},
+     * so moving it narrows the gap between shards; returns null if there is no such room or only one room.
+     */
+    Slot release(double maxLoad) {
+        if (slots.size() < 2) return null;
+        Slot pick = slots.stream()
+                .filter(s -> !s.stopped && s.load() <= maxLoad)
+                .max(Comparator.comparingDouble(Slot::load))
+                .orElse(null);
+        if (pick != null) slots.remove(pick);
+        return pick;
+    }
+
+    @Override
+    public void run() {
+        long nextHousekeeping = System.nanoTime() + HOUSEKEEPING_NANOS;
+        while (running) {
+            Runnable task;
+            while ((task = mailbox.poll()) != null) {
+                task.run();
+            }
+
+            long now = System.nanoTime();
+            boolean housekeeping = now >= nextHousekeeping;
+            if (housekeeping) nextHousekeeping = now + HOUSEKEEPING_NANOS;
+
+            long wait = stepNanos;
+            double load = 0;
+            var it = slots.iterator();
+            while (it.hasNext()) {
+                Slot slot = it.next();
+                if (slot.stopped) {
+                    it.remove();
+                    onRetired.accept(slot);
+                    continue;
+                }
+                runDueTicks(slot);
+                if (housekeeping) maintain(slot.room);
+                wait = Math.min(wait, slot.clock.nanosUntilNextTick(System.nanoTime()));
+                load += slot.load();
+            }
+            utilization = load;
+
+            if (wait > 0 && mailbox.isEmpty()) LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    private void runDueTicks(Slot slot) {
+        int due = slot.clock.dueTicks(System.nanoTime());
+        for (int i = 0; i < due; i++) {
+            long started = System.nanoTime();
+            try {
+                slot.room.tick();
+            } catch (Exception e) {
+                log.error("Error ticking room {}", slot.room.getRoomId(), e);
+            }
+            long finished = System.nanoTime();
+            slot.clock.ticked(finished);
+            slot.tickNanos += ((finished - started) - slot.tickNanos) * LOAD_SMOOTHING;
+        }
+    }
+
+    private void maintain(GameRoom room) {
+        try {
+            room.maintainPopulation();
+        } catch (Exception e) {
+            log.error("Error maintaining population in room {}", room.getRoomId(), e);
+        }
+    }
+
+    /** A room together with its clock and load estimate; it moves between shards as one unit. */
+    static final class Slot {
+        final GameRoom room;
+        final TickClock clock;
+        volatile RoomShard owner;
+        volatile boolean stopped;
+        private double tickNanos;
+        private final long stepNanos;
+
+        Slot(GameRoom room, TickClock clock, long stepNanos) {
+            this.room = room;
+            this.clock = clock;
+            this.stepNanos = stepNanos;
+        }
+
+        double load() {
+            return tickNanos / stepNanos;
+        }
+    }
+}
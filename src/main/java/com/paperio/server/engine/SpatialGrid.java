@@ -1,62 +1,307 @@
 package com.paperio.server.engine;
 
 import com.paperio.server.model.Player;
-import java.util.ArrayList;
-import java.util.List;
+import com.paperio.server.model.Trail;
+import org.locationtech.jts.geom.Envelope;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Broad-phase index over three layers: head positions, the cells each trail passes through and the cells
+ * covered by each territory envelope. Layers are updated incrementally from the player's trail epoch and
+ * territory version, so steady-state ticks only file newly appended trail segments and moved heads.
+ * <p>
+ * Cell contents are intrusive doubly-linked lists in a shared primitive node pool, and players are referred
+ * to by a recycled slot number. Queries write into a caller-owned {@link Candidates} buffer and never
+ * mutate the grid, so they allocate nothing and may run concurrently between updates.
+ */
 public class SpatialGrid {
     private final int cellSize;
     private final int cols;
     private final int rows;
-    private final List<Player>[][] grid;
 
-    @SuppressWarnings("unchecked")
+    private final int[] headCells;
+    private final int[] trailCells;
+    private final int[] territoryCells;
+
+    private int[] nodeSlot = new int[256];
+    private int[] nodeCell = new int[256];
+    private int[] nodeNext = new int[256];
+    private int[] nodePrev = new int[256];
+    private int nodeCount = 0;
+    private int freeNode = -1;
+
+    private Player[] slotPlayers = new Player[64];
+    private int[] freeSlots = new int[64];
+    private int freeSlotCount = 0;
+    private int slotCount = 0;
+
+    private final Map<Player, Entry> entries = new HashMap<>();
+
     public SpatialGrid(int mapWidth, int mapHeight, int cellSize) {
         this.cellSize = cellSize;
         this.cols = (int) Math.ceil((double) mapWidth / cellSize);
         this.rows = (int) Math.ceil((double) mapHeight / cellSize);
-        this.grid = new ArrayList[cols][rows];
+        this.headCells = emptyLayer(cols * rows);
+        this.trailCells = emptyLayer(cols * rows);
+        this.territoryCells = emptyLayer(cols * rows);
+    }
 
-        for (int x = 0; x < cols; x++) {
-            for (int y = 0; y < rows; y++) {
-                grid[x][y] = new ArrayList<>();
-            }
+    public void update(Player p) {
+        if (!p.isAlive()) {
+            remove(p);
+            return;
+        }
+
+        Entry e = entries.get(p);
+        if (e == null) {
+            e = new Entry(allocSlot(p), cols * rows);
+            entries.put(p, e);
         }
+        updateHead(p, e);
+        updateTrail(p, e);
+        updateTerritory(p, e);
+    }
+
+    public void remove(Player p) {
+        Entry e = entries.remove(p);
+        if (e == null) return;
+
+        if (e.headNode >= 0) unlink(headCells, e.headNode);
+        clearTrail(e);
+        clearTerritory(e);
+        releaseSlot(e.slot);
+    }
+
+    /** Players whose trail passes through any cell within {@code radius} of the segment {@code (x0, y0) -> (x1, y1)}. */
+    public void queryTrails(double x0, double y0, double x1, double y1, double radius, Candidates out) {
+        out.begin(slotCount);
+        collect(trailCells, Math.min(x0, x1) - radius, Math.max(x0, x1) + radius,
+                Math.min(y0, y1) - radius, Math.max(y0, y1) + radius, out);
+    }
+
+    /** Players whose territory envelope shares a cell with {@code area}. */
+    public void queryTerritories(Envelope area, Candidates out) {
+        out.begin(slotCount);
+        collect(territoryCells, area.getMinX(), area.getMaxX(), area.getMinY(), area.getMaxY(), out);
+    }
+
+    /** Players whose head or territory envelope shares a cell with the given box. */
+    public void queryNearby(double minX, double maxX, double minY, double maxY, Candidates out) {
+        out.begin(slotCount);
+        collect(headCells, minX, maxX, minY, maxY, out);
+        collect(territoryCells, minX, maxX, minY, maxY, out);
     }
 
-    public void clear() {
-        for (int x = 0; x < cols; x++) {
-            for (int y = 0; y < rows; y++) {
-                grid[x][y].clear();
+    private void collect(int[] layer, double minX, double maxX, double minY, double maxY, Candidates out) {
+        int minC = col(minX);
+        int maxC = col(maxX);
+        int minR = row(minY);
+        int maxR = row(maxY);
+
+        for (int c = minC; c <= maxC; c++) {
+            for (int r = minR; r <= maxR; r++) {
+                for (int n = layer[c * rows + r]; n >= 0; n = nodeNext[n]) {
+                    int slot = nodeSlot[n];
+                    out.offer(slot, slotPlayers[slot]);
+                }
             }
         }
     }
 
-    public void insert(Player p) {
-        if (!p.isAlive()) return;
-        int col = (int) (p.getX() / cellSize);
-        int row = (int) (p.getY() / cellSize);
+    private void updateHead(Player p, Entry e) {
+        int cell = col(p.getX()) * rows + row(p.getY());
+        if (e.headNode >= 0) {
+            if (nodeCell[e.headNode] == cell) return;
+            unlink(headCells, e.headNode);
+        }
+        e.headNode = link(headCells, cell, e.slot);
+    }
 
-        col = Math.clamp(col, 0, cols - 1);
-        row = Math.clamp(row, 0, rows - 1);
+    private void updateTrail(Player p, Entry e) {
+        Trail trail = p.getTrail();
+        if (e.trailEpoch != trail.getEpoch()) {
+            clearTrail(e);
+            e.trailEpoch = trail.getEpoch();
+        }
 
-        grid[col][row].add(p);
+        for (int i = Math.max(e.trailFiled, 1); i < trail.size(); i++) {
+            int minC = col(Math.min(trail.getX(i - 1), trail.getX(i)));
+            int maxC = col(Math.max(trail.getX(i - 1), trail.getX(i)));
+            int minR = row(Math.min(trail.getY(i - 1), trail.getY(i)));
+            int maxR = row(Math.max(trail.getY(i - 1), trail.getY(i)));
+            for (int c = minC; c <= maxC; c++) {
+                for (int r = minR; r <= maxR; r++) {
+                    int cell = c * rows + r;
+                    if (!e.trailCellSet.get(cell)) {
+                        e.trailCellSet.set(cell);
+                        e.trailNodes = push(e.trailNodes, e.trailNodeCount++, link(trailCells, cell, e.slot));
+                    }
+                }
+            }
+        }
+        e.trailFiled = trail.size();
     }
 
-    public List<Player> getPotentialColliders(Player p) {
-        int col = (int) (p.getX() / cellSize);
-        int row = (int) (p.getY() / cellSize);
-        List<Player> nearby = new ArrayList<>();
+    private void clearTrail(Entry e) {
+        for (int i = 0; i < e.trailNodeCount; i++) {
+            unlink(trailCells, e.trailNodes[i]);
+        }
+        e.trailNodeCount = 0;
+        e.trailCellSet.clear();
+        e.trailFiled = 0;
+    }
+
+    private void updateTerritory(Player p, Entry e) {
+        if (e.territoryVersion == p.getTerritoryVersion()) return;
 
-        for (int i = -1; i <= 1; i++) {
-            for (int j = -1; j <= 1; j++) {
-                int c = col + i;
-                int r = row + j;
-                if (c >= 0 && c < cols && r >= 0 && r < rows) {
-                    nearby.addAll(grid[c][r]);
+        clearTerritory(e);
+        Envelope env = p.getTerritory().getEnvelopeInternal();
+        if (!env.isNull()) {
+            for (int c = col(env.getMinX()); c <= col(env.getMaxX()); c++) {
+                for (int r = row(env.getMinY()); r <= row(env.getMaxY()); r++) {
+                    e.territoryNodes = push(e.territoryNodes, e.territoryNodeCount++, link(territoryCells, c * rows + r, e.slot));
                 }
             }
         }
-        return nearby;
+        e.territoryVersion = p.getTerritoryVersion();
+    }
+
+    private void clearTerritory(Entry e) {
+        for (int i = 0; i < e.territoryNodeCount; i++) {
+            unlink(territoryCells, e.territoryNodes[i]);
+        }
+        e.territoryNodeCount = 0;
+    }
+
+    private int link(int[] layer, int cell, int slot) {
+        int n;
+        if (freeNode >= 0) {
+            n = freeNode;
+            freeNode = nodeNext[n];
+        } else {
+            if (nodeCount == nodeSlot.length) growNodes();
+            n = nodeCount++;
+        }
+
+        nodeSlot[n] = slot;
+        nodeCell[n] = cell;
+        nodePrev[n] = -1;
+        nodeNext[n] = layer[cell];
+        if (layer[cell] >= 0) nodePrev[layer[cell]] = n;
+        layer[cell] = n;
+        return n;
+    }
+
+    private void unlink(int[] layer, int n) {
+        int prev = nodePrev[n];
+        int next = nodeNext[n];
+        if (prev >= 0) nodeNext[prev] = next;
+        else layer[nodeCell[n]] = next;
+        if (next >= 0) nodePrev[next] = prev;
+
+        nodeNext[n] = freeNode;
+        freeNode = n;
+    }
+
+    private void growNodes() {
+        int size = nodeSlot.length * 2;
+        nodeSlot = Arrays.copyOf(nodeSlot, size);
+        nodeCell = Arrays.copyOf(nodeCell, size);
+        nodeNext = Arrays.copyOf(nodeNext, size);
+        nodePrev = Arrays.copyOf(nodePrev, size);
+    }
+
+    private int allocSlot(Player p) {
+        int slot;
+        if (freeSlotCount > 0) {
+            slot = freeSlots[--freeSlotCount];
+        } else {
+            if (slotCount == slotPlayers.length) slotPlayers = Arrays.copyOf(slotPlayers, slotCount * 2);
+            slot = slotCount++;
+        }
+        slotPlayers[slot] = p;
+        return slot;
+    }
+
+    private void releaseSlot(int slot) {
+        slotPlayers[slot] = null;
+        freeSlots = push(freeSlots, freeSlotCount++, slot);
+    }
+
+    private int col(double x) {
+        return Math.clamp((int) Math.floor(x / cellSize), 0, cols - 1);
+    }
+
+    private int row(double y) {
+        return Math.clamp((int) Math.floor(y / cellSize), 0, rows - 1);
+    }
+
+    private static int[] emptyLayer(int cells) {
+        int[] layer = new int[cells];
+        Arrays.fill(layer, -1);
+        return layer;
+    }
+
+    private static int[] push(int[] array, int index, int value) {
+        if (index == array.length) array = Arrays.copyOf(array, array.length * 2);
+        array[index] = value;
+        return array;
+    }
+
+    private static final class Entry {
+        private final int slot;
+        private final BitSet trailCellSet;
+        private int headNode = -1;
+        private int trailEpoch = -1;
+        private int trailFiled = 0;
+        private int[] trailNodes = new int[16];
+        private int trailNodeCount = 0;
+        private int territoryVersion = -1;
+        private int[] territoryNodes = new int[16];
+        private int territoryNodeCount = 0;
+
+        private Entry(int slot, int cells) {
+            this.slot = slot;
+            this.trailCellSet = new BitSet(cells);
+        }
+    }
+
+    /**
+     * Reusable query result. Each query resets it and de-duplicates players that appear in several cells,
+     * so one instance per thread can serve any number of queries without allocating.
+     */
+    public static final class Candidates {
+        private Player[] items = new Player[32];
+        private int size = 0;
+        private int[] seen = new int[64];
+        private int stamp = 0;
+
+        public int size() {
+            return size;
+        }
+
+        public Player get(int i) {
+            return items[i];
+        }
+
+        private void begin(int slotCapacity) {
+            size = 0;
+            if (seen.length < slotCapacity) seen = new int[Math.max(slotCapacity, seen.length * 2)];
+            if (++stamp == 0) {
+                Arrays.fill(seen, 0);
+                stamp = 1;
+            }
+        }
+
+        private void offer(int slot, Player p) {
+            if (seen[slot] == stamp) return;
+            seen[slot] = stamp;
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            items[size++] = p;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.paperio.server.engine;
+
+import lombok.Getter;
+
+/**
+ * Fixed-timestep accounting for one room. Each tick has a deadline one step after the previous one, so the
+ * simulation advances by exactly one step per elapsed step no matter how late the loop wakes up. When the loop
+ * falls further behind than {@code maxCatchUpTicks}, the excess is skipped and counted.
+ * <p>
+ * Only the room's loop may advance it. The counters have that single writer and are volatile, so stats and
+ * metrics threads can read them without tearing or seeing stale values.
+ */
+public class TickClock {
+    private final long stepNanos;
+    private final int maxCatchUpTicks;
+    private long nextDeadline;
+
+    @Getter private volatile long ticks;
+    @Getter private volatile long overruns;
+    @Getter private volatile long skipped;
+
+    public TickClock(long stepNanos, int maxCatchUpTicks, long now) {
+        this.stepNanos = stepNanos;
+        this.maxCatchUpTicks = Math.max(1, maxCatchUpTicks);
+        this.nextDeadline = now + stepNanos;
+    }
+
+    /** Number of ticks to run now; zero if the next deadline has not been reached yet. */
+    public int dueTicks(long now) {
+        if (now < nextDeadline) return 0;
+        long due = 1 + (now - nextDeadline) / stepNanos;
+        if (due > maxCatchUpTicks) {
+            long dropped = due - maxCatchUpTicks;
+            skipped += dropped;
+            nextDeadline += dropped * stepNanos;
+            due = maxCatchUpTicks;
+        }
+        return (int) due;
+    }
+
+    /** Records a finished tick; a tick that ends past the following deadline counts as an overrun. */
+    public void ticked(long finishedAt) {
+        ticks++;
+        nextDeadline += stepNanos;
+        if (finishedAt > nextDeadline) overruns++;
+    }
+
+    public long nanosUntilNextTick(long now) {
+        return Math.max(0, nextDeadline - now);
+    }
+}
@@ -0,0 +1,113 @@
+package com.paperio.server.journal;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a {@link RoomJournal} back tick by tick. The whole file is mapped read-only, so a single journal is
+ * limited to 2 GiB. A truncated trailing record (e.g. after a crash) ends the journal like an END marker.
+ */
+public class JournalReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final ByteBuffer buf;
+    private final int tickRate;
+
+    public JournalReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) throw new IOException("Journal too large to map: " + size + " bytes");
+        this.buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+        if (size < RoomJournal.HEADER_BYTES || buf.getInt() != RoomJournal.MAGIC) {
+            throw new IOException("Not a room journal: " + file);
+        }
+        int version = buf.getInt();
+        if (version != RoomJournal.VERSION) throw new IOException("Unsupported journal version " + version);
+        this.tickRate = buf.getInt();
+        buf.getInt();
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /** Returns the next journaled tick, or null at the end of the journal. */
+    public JournalTick next() {
+        long tick = -1;
+        List<JournalTick.Spawn> spawns = new ArrayList<>();
+        List<Integer> leaves = new ArrayList<>();
+        List<JournalTick.Input> inputs = new ArrayList<>();
+        List<Integer> deferred = new ArrayList<>();
+        Long checkpoint = null;
+
+        try {
+            while (buf.hasRemaining()) {
+                int mark = buf.position();
+                byte type = buf.get();
+                if (type == RoomJournal.END) break;
+                if (type == RoomJournal.TICK && tick >= 0) {
+                    buf.position(mark);
+                    break;
+                }
+                switch (type) {
+                    case RoomJournal.TICK -> tick = getVarLong();
+                    case RoomJournal.SPAWN -> spawns.add(readSpawn());
+                    case RoomJournal.LEAVE -> leaves.add(getVarInt());
+                    case RoomJournal.INPUT -> inputs.add(new JournalTick.Input(getVarInt(), buf.getDouble(),
+                            buf.getDouble(), getVarInt()));
+                    case RoomJournal.DEFER -> deferred.add(getVarInt());
+                    case RoomJournal.CHECKPOINT -> checkpoint = buf.getLong();
+                    default -> throw new IllegalStateException("Corrupt journal: record type " + type + " at " + mark);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+        return tick < 0 ? null : new JournalTick(tick, spawns, leaves, inputs, deferred, checkpoint);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private JournalTick.Spawn readSpawn() {
+        int netId = getVarInt();
+        boolean bot = buf.get() != 0;
+        long seed = bot ? buf.getLong() : 0;
+        double x = buf.getDouble();
+        double y = buf.getDouble();
+        return new JournalTick.Spawn(netId, getString(), getString(), getString(), x, y, bot, seed);
+    }
+
+    private String getString() {
+        byte[] bytes = new byte[getVarInt()];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int getVarInt() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buf.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private long getVarLong() {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buf.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+}
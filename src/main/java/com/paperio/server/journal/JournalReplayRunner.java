@@ -0,0 +1,130 @@
+package com.paperio.server.journal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paperio.server.config.GameProperties;
+import com.paperio.server.config.ServerConfig;
+import com.paperio.server.engine.CollisionProcessor;
+import com.paperio.server.engine.EntityFactory;
+import com.paperio.server.engine.GameRoom;
+import com.paperio.server.engine.PhysicsProcessor;
+import com.paperio.server.service.GeometryService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless replay tool: re-runs a room journal through {@link GameRoom#replayTick} as fast as the simulation
+ * allows, checks every recorded checkpoint and reports tick timings, then exits (status 1 on divergence).
+ * <p>
+ * It is a plain {@code main}, not part of the server: it binds {@code game.*} from {@code application.properties}
+ * and {@code --game.*} arguments, and builds only the engine objects, so no web server or transport starts.
+ * The replay must use the same game configuration the journal was recorded with. Checkpoints are state hashes
+ * for verification only; a room cannot be restored from one, so replay always starts at the first tick.
+ */
+@Slf4j
+public class JournalReplayRunner {
+    private final GameProperties props;
+    private final EntityFactory entityFactory;
+    private final PhysicsProcessor physicsProcessor;
+    private final CollisionProcessor collisionProcessor;
+    private final ForkJoinPool tickPool;
+
+    public JournalReplayRunner(GameProperties props, EntityFactory entityFactory, PhysicsProcessor physicsProcessor,
+                               CollisionProcessor collisionProcessor, ForkJoinPool tickPool) {
+        this.props = props;
+        this.entityFactory = entityFactory;
+        this.physicsProcessor = physicsProcessor;
+        this.collisionProcessor = collisionProcessor;
+        this.tickPool = tickPool;
+    }
+
+    /** {@code --game.journal.replay=<file>}, plus any {@code --game.*} overrides the journal was recorded with. */
+    public static void main(String[] args) throws IOException {
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        for (PropertySource<?> source : new PropertiesPropertySourceLoader()
+                .load("application", new ClassPathResource("application.properties"))) {
+            env.getPropertySources().addLast(source);
+        }
+        String journalFile = env.getProperty("game.journal.replay");
+        if (journalFile == null) {
+            log.error("Usage: JournalReplayRunner --game.journal.replay=<file> [--game.*=<value> ...]");
+            System.exit(2);
+        }
+        GameProperties props = Binder.get(env).bindOrCreate("game", GameProperties.class);
+
+        ServerConfig config = new ServerConfig();
+        ExecutorService conquestExecutor = config.conquestExecutor(props);
+        ForkJoinPool tickPool = config.tickPool(props);
+        boolean matched;
+        try {
+            GeometryService geoService = new GeometryService(props);
+            var runner = new JournalReplayRunner(props, new EntityFactory(geoService, props),
+                    new PhysicsProcessor(geoService, props, conquestExecutor),
+                    new CollisionProcessor(props, geoService), tickPool);
+            matched = runner.replay(Path.of(journalFile));
+        } finally {
+            conquestExecutor.shutdownNow();
+            tickPool.shutdownNow();
+        }
+        System.exit(matched ? 0 : 1);
+    }
+
+    /** Returns true if every checkpoint matched. */
+    public boolean replay(Path journalFile) throws IOException {
+        try (JournalReader reader = new JournalReader(journalFile)) {
+            var room = new GameRoom("replay", props, entityFactory, physicsProcessor, collisionProcessor,
+                    new ObjectMapper(), tickPool, Runnable::run, false);
+
+            long[] durations = new long[1024];
+            int ticks = 0;
+            int checkpoints = 0;
+            long divergedAt = -1;
+            long started = System.nanoTime();
+
+            JournalTick tick;
+            while ((tick = reader.next()) != null) {
+                long tickStart = System.nanoTime();
+                long hash = room.replayTick(tick);
+                if (ticks == durations.length) durations = Arrays.copyOf(durations, ticks * 2);
+                durations[ticks++] = System.nanoTime() - tickStart;
+
+                if (tick.checkpoint() == null) continue;
+                checkpoints++;
+                if (hash != tick.checkpoint() && divergedAt < 0) {
+                    divergedAt = tick.tick();
+                    log.error("Replay diverged at tick {}: recorded {}, replayed {}",
+                            tick.tick(), Long.toHexString(tick.checkpoint()), Long.toHexString(hash));
+                }
+            }
+
+            long elapsedNanos = System.nanoTime() - started;
+            double playedSeconds = (double) ticks / reader.getTickRate();
+            long[] sorted = Arrays.copyOf(durations, ticks);
+            Arrays.sort(sorted);
+            log.info("Replayed {} ticks ({} s of play) in {} ms, {}x real time; tick p50={} us p99={} us max={} us",
+                    ticks, String.format("%.1f", playedSeconds), elapsedNanos / 1_000_000,
+                    String.format("%.1f", playedSeconds / (elapsedNanos / 1e9)),
+                    percentile(sorted, 0.50) / 1000, percentile(sorted, 0.99) / 1000,
+                    ticks == 0 ? 0 : sorted[ticks - 1] / 1000);
+            log.info("{} checkpoints checked, {}", checkpoints,
+                    divergedAt < 0 ? "all matched" : "first divergence at tick " + divergedAt);
+            return divergedAt < 0;
+        }
+    }
+
+    private static long percentile(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,16 @@
+package com.paperio.server.journal;
+
+import java.util.List;
+
+/**
+ * Everything that entered one room tick from outside the simulation, in the order the tick applied it:
+ * spawns, then departures, then inputs. {@code deferredConquests} lists players whose due conquest was not ready
+ * in time. {@code checkpoint} is the state hash written after the tick, or null.
+ */
+public record JournalTick(long tick, List<Spawn> spawns, List<Integer> leaves, List<Input> inputs,
+                          List<Integer> deferredConquests, Long checkpoint) {
+
+    public record Spawn(int netId, String id, String name, String color, double x, double y, boolean bot, long seed) {}
+
+    public record Input(int netId, double x, double y, int seq) {}
+}
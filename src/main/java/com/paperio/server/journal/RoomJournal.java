@@ -0,0 +1,147 @@
+package com.paperio.server.journal;
+
+import com.paperio.server.model.Player;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only, memory-mapped record of one room: tick markers, spawns (with bot RNG seeds), departures, applied
+ * inputs, conquest commits deferred by a late worker and periodic state-hash checkpoints. Records are a type byte followed by varints, fixed-width doubles
+ * and length-prefixed UTF-8. The file grows one mapped segment at a time; unwritten space stays zero, which
+ * readers treat as the end of the journal.
+ * <p>
+ * Not thread-safe; only the room's tick thread may write.
+ */
+public class RoomJournal implements AutoCloseable {
+    static final int MAGIC = 0x50494F4A; // "PIOJ"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 16;
+
+    static final byte END = 0;
+    static final byte TICK = 1;
+    static final byte SPAWN = 2;
+    static final byte LEAVE = 3;
+    static final byte INPUT = 4;
+    static final byte CHECKPOINT = 5;
+    static final byte DEFER = 6;
+
+    private static final int MAX_VARINT = 5;
+    private static final int MAX_VARLONG = 10;
+
+    private final FileChannel channel;
+    private final int segmentBytes;
+    private MappedByteBuffer buf;
+    private long mappedAt;
+
+    private RoomJournal(FileChannel channel, int segmentBytes) {
+        this.channel = channel;
+        this.segmentBytes = segmentBytes;
+    }
+
+    public static RoomJournal create(Path file, int segmentBytes, int tickRate) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        RoomJournal journal = new RoomJournal(channel, Math.max(64 * 1024, segmentBytes));
+        journal.buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, journal.segmentBytes);
+        journal.buf.putInt(MAGIC).putInt(VERSION).putInt(tickRate).putInt(0);
+        return journal;
+    }
+
+    public void tick(long tick) {
+        ensure(1 + MAX_VARLONG);
+        buf.put(TICK);
+        putVarLong(tick);
+    }
+
+    public void spawn(Player p) {
+        byte[] id = p.getId().getBytes(StandardCharsets.UTF_8);
+        byte[] name = p.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] color = p.getColor().getBytes(StandardCharsets.UTF_8);
+        ensure(1 + MAX_VARINT + 1 + 8 + 16 + 3 * MAX_VARINT + id.length + name.length + color.length);
+
+        buf.put(SPAWN);
+        putVarInt(p.getNetId());
+        boolean bot = p.getBotController() != null;
+        buf.put((byte) (bot ? 1 : 0));
+        if (bot) buf.putLong(p.getBotController().getSeed());
+        buf.putDouble(p.getX()).putDouble(p.getY());
+        putBytes(id);
+        putBytes(name);
+        putBytes(color);
+    }
+
+    public void leave(int netId) {
+        ensure(1 + MAX_VARINT);
+        buf.put(LEAVE);
+        putVarInt(netId);
+    }
+
+    public void input(int netId, double x, double y, int seq) {
+        ensure(1 + 2 * MAX_VARINT + 16);
+        buf.put(INPUT);
+        putVarInt(netId);
+        buf.putDouble(x).putDouble(y);
+        putVarInt(seq);
+    }
+
+    /** The player's due conquest was not ready in time and moves to a later tick. */
+    public void deferConquest(int netId) {
+        ensure(1 + MAX_VARINT);
+        buf.put(DEFER);
+        putVarInt(netId);
+    }
+
+    public void checkpoint(long stateHash) {
+        ensure(1 + 8);
+        buf.put(CHECKPOINT);
+        buf.putLong(stateHash);
+    }
+
+    @Override
+    public void close() throws IOException {
+        buf.force();
+        channel.close();
+    }
+
+    /** Remaps at the current write position so records never straddle a segment and no gap is left behind. */
+    private void ensure(int bytes) {
+        // One spare byte keeps an END marker after the last record
+        if (buf.remaining() > bytes) return;
+        try {
+            long position = mappedAt + buf.position();
+            buf.force();
+            buf = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.max(segmentBytes, bytes + 1));
+            mappedAt = position;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to extend journal", e);
+        }
+    }
+
+    private void putBytes(byte[] bytes) {
+        putVarInt(bytes.length);
+        buf.put(bytes);
+    }
+
+    private void putVarInt(int v) {
+        while ((v & ~0x7F) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    private void putVarLong(long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+}
@@ -2,13 +2,15 @@ package com.paperio.server.model;
 
 import com.paperio.server.config.GameProperties;
 import com.paperio.server.engine.BotController;
+import com.paperio.server.engine.PendingConquest;
 import com.paperio.server.util.ColorGenerator;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
-import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Geometry;
-import java.util.ArrayList;
-import java.util.List;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
 
 @Getter
 @Setter
@@ -17,17 +19,37 @@ public class Player {
     private final String name;
     private final String color;
     private final GameProperties.PhysicsConfig physics;
+    private int netId;
 
     private boolean isAlive = true;
     private int score = 0;
     private double x;
     private double y;
+    private double prevX;
+    private double prevY;
     private double angle;
     private double targetX;
     private double targetY;
+    private int lastInputSeq;
 
     private Geometry territory;
-    private final List<Coordinate> trailPoints = new ArrayList<>();
+    @Setter(AccessLevel.NONE)
+    private int territoryVersion = 0;
+    @Setter(AccessLevel.NONE)
+    private int territoryVertices;
+    private int overlapCheckedVersion = -1;
+    @Setter(AccessLevel.NONE)
+    private double[][] territoryRings;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private TerritoryLocator territoryLocator;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private double[][] reducedRings;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int reducedRingsVersion = -1;
+    private final Trail trail = new Trail();
 
     @Setter @Getter
     private boolean isBot = false;
@@ -35,16 +57,85 @@ public class Player {
     @Setter @Getter
     private BotController botController;
 
+    private PendingConquest pendingConquest;
+
     public Player(String id, String name, double startX, double startY,
                   GameProperties.PhysicsConfig physics, Geometry initialTerritory) {
+        this(id, name, ColorGenerator.nextColor(), startX, startY, physics, initialTerritory);
+    }
+
+    public Player(String id, String name, String color, double startX, double startY,
+                  GameProperties.PhysicsConfig physics, Geometry initialTerritory) {
         this.id = id;
         this.name = name;
         this.physics = physics;
         this.x = startX;
         this.y = startY;
+        this.prevX = startX;
+        this.prevY = startY;
         this.targetX = startX;
         this.targetY = startY;
-        this.color = ColorGenerator.nextColor();
+        this.color = color;
         this.territory = initialTerritory;
+        this.territoryRings = projectRings(initialTerritory);
+        this.territoryVertices = initialTerritory.getNumPoints();
+    }
+
+    public void setTerritory(Geometry territory) {
+        this.territory = territory;
+        this.territoryRings = projectRings(territory);
+        this.territoryVertices = territory.getNumPoints();
+        this.territoryLocator = null;
+        this.territoryVersion++;
+    }
+
+    /**
+     * Replaces the territory with a subset of itself. A shrinking territory cannot start overlapping anyone,
+     * so if it was already overlap-checked it stays checked. {@code reduced} must really be covered by the
+     * current territory; budget simplification has to go through {@code enforceVertexBudgetWithin}.
+     */
+    public void shrinkTerritory(Geometry reduced) {
+        boolean settled = overlapCheckedVersion == territoryVersion;
+        setTerritory(reduced);
+        if (settled) overlapCheckedVersion = territoryVersion;
+    }
+
+    /** Simplified exterior rings for distant observers; computed at most once per territory version. */
+    public double[][] getReducedTerritoryRings(double tolerance) {
+        if (reducedRingsVersion != territoryVersion) {
+            reducedRings = projectRings(TopologyPreservingSimplifier.simplify(territory, tolerance));
+            reducedRingsVersion = territoryVersion;
+        }
+        return reducedRings;
+    }
+
+    public TerritoryLocator getTerritoryLocator() {
+        if (territoryLocator == null) {
+            territoryLocator = new TerritoryLocator(territory);
+        }
+        return territoryLocator;
+    }
+
+    /** Flattens each polygon's exterior ring to {@code [x0, y0, x1, y1, ...]}; rebuilt only when territory changes. */
+    private static double[][] projectRings(Geometry territory) {
+        int polygons = 0;
+        for (int i = 0; i < territory.getNumGeometries(); i++) {
+            if (territory.getGeometryN(i) instanceof Polygon) polygons++;
+        }
+
+        double[][] rings = new double[polygons][];
+        int r = 0;
+        for (int i = 0; i < territory.getNumGeometries(); i++) {
+            if (territory.getGeometryN(i) instanceof Polygon poly) {
+                CoordinateSequence seq = poly.getExteriorRing().getCoordinateSequence();
+                double[] ring = new double[seq.size() * 2];
+                for (int j = 0; j < seq.size(); j++) {
+                    ring[j * 2] = seq.getX(j);
+                    ring[j * 2 + 1] = seq.getY(j);
+                }
+                rings[r++] = ring;
+            }
+        }
+        return rings;
     }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.paperio.server.model;
+
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.algorithm.locate.PointOnGeometryLocator;
+import org.locationtech.jts.algorithm.locate.SimplePointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.geom.impl.CoordinateArraySequence;
+import org.locationtech.jts.operation.distance.IndexedFacetDistance;
+
+/**
+ * Indexed "is this point in or within tolerance of the territory" test, built once per territory version.
+ * Replaces buffering the head into a polygon and running a full intersection predicate every tick.
+ * Not thread-safe: it reuses a probe point, and is only ever queried by its owner's update.
+ */
+public class TerritoryLocator {
+    private final Envelope envelope;
+    private final PointOnGeometryLocator locator;
+    private final Geometry territory;
+    private IndexedFacetDistance boundaryDistance;
+
+    private final Coordinate probe = new Coordinate();
+    private final Point probePoint;
+
+    public TerritoryLocator(Geometry territory) {
+        this.territory = territory;
+        this.envelope = territory.getEnvelopeInternal();
+        this.locator = territory instanceof Polygonal
+                ? new IndexedPointInAreaLocator(territory)
+                : new SimplePointInAreaLocator(territory);
+        this.probePoint = territory.getFactory().createPoint(new CoordinateArraySequence(new Coordinate[]{probe}));
+    }
+
+    public boolean isWithin(double x, double y, double tolerance) {
+        if (envelope.isNull()
+                || x < envelope.getMinX() - tolerance || x > envelope.getMaxX() + tolerance
+                || y < envelope.getMinY() - tolerance || y > envelope.getMaxY() + tolerance) {
+            return false;
+        }
+
+        probe.x = x;
+        probe.y = y;
+        if (locator.locate(probe) != Location.EXTERIOR) return true;
+        if (tolerance <= 0) return false;
+
+        if (boundaryDistance == null) {
+            boundaryDistance = new IndexedFacetDistance(territory.getBoundary());
+        }
+        probePoint.geometryChanged();
+        return boundaryDistance.distance(probePoint) <= tolerance;
+    }
+}
@@ -0,0 +1,95 @@
+package com.paperio.server.model;
+
+import lombok.Getter;
+import org.locationtech.jts.geom.CoordinateSequence;
+
+import java.util.Arrays;
+
+/**
+ * Growable trail of points stored as interleaved primitive {@code x, y} pairs.
+ * Clearing keeps the backing array, so a player's trail reuses the same storage for every excursion.
+ * Segments are indexed on append so proximity checks only touch the segments around the query point.
+ */
+public class Trail {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private double[] coords = new double[INITIAL_CAPACITY * 2];
+    private int size = 0;
+    private final TrailSegmentIndex segmentIndex = new TrailSegmentIndex(this);
+
+    /** Incremented on every {@link #clear()} so observers can tell a restarted trail from a grown one. */
+    @Getter
+    private int epoch = 0;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getX(int i) {
+        return coords[i * 2];
+    }
+
+    public double getY(int i) {
+        return coords[i * 2 + 1];
+    }
+
+    public double lastX() {
+        return coords[(size - 1) * 2];
+    }
+
+    public double lastY() {
+        return coords[(size - 1) * 2 + 1];
+    }
+
+    public void add(double x, double y) {
+        if (size * 2 == coords.length) {
+            coords = Arrays.copyOf(coords, coords.length * 2);
+        }
+        coords[size * 2] = x;
+        coords[size * 2 + 1] = y;
+        size++;
+        if (size >= 2) segmentIndex.addSegment(size - 2);
+    }
+
+    public void clear() {
+        size = 0;
+        epoch++;
+        segmentIndex.clear();
+    }
+
+    /**
+     * True if the polyline through the first {@code pointCount} points passes closer than {@code radius}
+     * to {@code (x, y)}. Only segments filed near the query point are tested.
+     */
+    public boolean isNear(double x, double y, double radius, int pointCount) {
+        return segmentIndex.anyWithin(x, y, x, y, radius, Math.min(pointCount, size));
+    }
+
+    /** Swept variant of {@link #isNear}: tests the whole movement segment {@code (x0, y0) -> (x1, y1)}. */
+    public boolean isNearSegment(double x0, double y0, double x1, double y1, double radius, int pointCount) {
+        return segmentIndex.anyWithin(x0, y0, x1, y1, radius, Math.min(pointCount, size));
+    }
+
+    /** {@link #isNearSegment} that counts distance-tested segments into {@code tested[0]}; for cost tests. */
+    boolean isNearSegment(double x0, double y0, double x1, double y1, double radius, int pointCount, int[] tested) {
+        return segmentIndex.anyWithin(x0, y0, x1, y1, radius, Math.min(pointCount, size), tested);
+    }
+
+    /** Copies points {@code [from, size)} as interleaved {@code x, y} pairs. */
+    public double[] toArray(int from) {
+        return Arrays.copyOfRange(coords, from * 2, size * 2);
+    }
+
+    /** A read-only JTS view of the first {@code count} points; valid until the trail is cleared. */
+    public CoordinateSequence asSequence(int count) {
+        return new TrailCoordinateSequence(coords, Math.min(count, size));
+    }
+
+    public CoordinateSequence asSequence() {
+        return asSequence(size);
+    }
+}
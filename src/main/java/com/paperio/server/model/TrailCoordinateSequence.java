@@ -0,0 +1,99 @@
+package com.paperio.server.model;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateXY;
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.Arrays;
+
+/**
+ * Exposes a prefix of a {@link Trail}'s backing array to JTS without copying it.
+ */
+public final class TrailCoordinateSequence implements CoordinateSequence {
+    private final double[] coords;
+    private final int size;
+
+    TrailCoordinateSequence(double[] coords, int size) {
+        this.coords = coords;
+        this.size = size;
+    }
+
+    @Override
+    public int getDimension() {
+        return 2;
+    }
+
+    @Override
+    public Coordinate getCoordinate(int i) {
+        return new CoordinateXY(coords[i * 2], coords[i * 2 + 1]);
+    }
+
+    @Override
+    public Coordinate getCoordinateCopy(int i) {
+        return getCoordinate(i);
+    }
+
+    @Override
+    public void getCoordinate(int index, Coordinate coord) {
+        coord.x = coords[index * 2];
+        coord.y = coords[index * 2 + 1];
+    }
+
+    @Override
+    public double getX(int index) {
+        return coords[index * 2];
+    }
+
+    @Override
+    public double getY(int index) {
+        return coords[index * 2 + 1];
+    }
+
+    @Override
+    public double getOrdinate(int index, int ordinateIndex) {
+        return switch (ordinateIndex) {
+            case X -> coords[index * 2];
+            case Y -> coords[index * 2 + 1];
+            default -> Double.NaN;
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void setOrdinate(int index, int ordinateIndex, double value) {
+        throw new UnsupportedOperationException("Trail sequences are read-only views");
+    }
+
+    @Override
+    public Coordinate[] toCoordinateArray() {
+        Coordinate[] result = new Coordinate[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = getCoordinate(i);
+        }
+        return result;
+    }
+
+    @Override
+    public Envelope expandEnvelope(Envelope env) {
+        for (int i = 0; i < size; i++) {
+            env.expandToInclude(coords[i * 2], coords[i * 2 + 1]);
+        }
+        return env;
+    }
+
+    @Override
+    @Deprecated
+    public Object clone() {
+        return copy();
+    }
+
+    @Override
+    public TrailCoordinateSequence copy() {
+        return new TrailCoordinateSequence(Arrays.copyOf(coords, size * 2), size);
+    }
+}
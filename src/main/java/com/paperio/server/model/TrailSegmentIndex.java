@@ -0,0 +1,108 @@
+package com.paperio.server.model;
+
+import com.paperio.server.util.SegmentMath;
+
+import java.util.Arrays;
+
+/**
+ * Uniform hash grid over a trail's segments, filled as points are appended.
+ * Segment {@code i} joins points {@code i} and {@code i + 1}; it is filed under every cell its bounding box touches.
+ * Cells hash into a fixed bucket table, so a bucket may also hold segments of unrelated cells; queries
+ * always finish with an exact distance test.
+ */
+final class TrailSegmentIndex {
+    static final double CELL_SIZE = 32.0;
+    private static final int BUCKETS = 1024;
+
+    private final Trail trail;
+    private final int[] bucketHead = new int[BUCKETS];
+    private int[] entrySegment = new int[256];
+    private int[] entryNext = new int[256];
+    private int entries = 0;
+
+    TrailSegmentIndex(Trail trail) {
+        this.trail = trail;
+        Arrays.fill(bucketHead, -1);
+    }
+
+    void clear() {
+        if (entries == 0) return;
+        Arrays.fill(bucketHead, -1);
+        entries = 0;
+    }
+
+    void addSegment(int segment) {
+        double ax = trail.getX(segment);
+        double ay = trail.getY(segment);
+        double bx = trail.getX(segment + 1);
+        double by = trail.getY(segment + 1);
+
+        int minCx = cell(Math.min(ax, bx));
+        int maxCx = cell(Math.max(ax, bx));
+        int minCy = cell(Math.min(ay, by));
+        int maxCy = cell(Math.max(ay, by));
+
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                insert(bucket(cx, cy), segment);
+            }
+        }
+    }
+
+    /**
+     * True if any segment made only of points {@code [0, pointCount)} lies closer than {@code radius}
+     * to the query segment {@code (x0, y0) -> (x1, y1)}. A zero-length query segment is a point query.
+     */
+    boolean anyWithin(double x0, double y0, double x1, double y1, double radius, int pointCount) {
+        return anyWithin(x0, y0, x1, y1, radius, pointCount, null);
+    }
+
+    /**
+     * {@link #anyWithin} that also adds the number of segments it distance-tested, which is what a query costs,
+     * to {@code tested[0]} when {@code tested} is non-null. The counter belongs to the caller, so concurrent
+     * readers of one index never share state.
+     */
+    boolean anyWithin(double x0, double y0, double x1, double y1, double radius, int pointCount, int[] tested) {
+        int segmentLimit = pointCount - 1;
+        if (segmentLimit <= 0) return false;
+        double radiusSq = radius * radius;
+
+        int minCx = cell(Math.min(x0, x1) - radius);
+        int maxCx = cell(Math.max(x0, x1) + radius);
+        int minCy = cell(Math.min(y0, y1) - radius);
+        int maxCy = cell(Math.max(y0, y1) + radius);
+
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                for (int e = bucketHead[bucket(cx, cy)]; e != -1; e = entryNext[e]) {
+                    int s = entrySegment[e];
+                    if (s >= segmentLimit) continue;
+                    if (tested != null) tested[0]++;
+                    double d = SegmentMath.segmentSegmentDistanceSq(x0, y0, x1, y1,
+                            trail.getX(s), trail.getY(s), trail.getX(s + 1), trail.getY(s + 1));
+                    if (d < radiusSq) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void insert(int bucket, int segment) {
+        if (entries == entrySegment.length) {
+            entrySegment = Arrays.copyOf(entrySegment, entries * 2);
+            entryNext = Arrays.copyOf(entryNext, entries * 2);
+        }
+        entrySegment[entries] = segment;
+        entryNext[entries] = bucketHead[bucket];
+        bucketHead[bucket] = entries;
+        entries++;
+    }
+
+    private static int cell(double v) {
+        return (int) Math.floor(v / CELL_SIZE);
+    }
+
+    private static int bucket(int cx, int cy) {
+        return ((cx * 73856093) ^ (cy * 19349663)) & (BUCKETS - 1);
+    }
+}
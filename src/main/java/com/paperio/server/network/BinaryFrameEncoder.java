@@ -0,0 +1,226 @@
+package com.paperio.server.network;
+
+import com.paperio.server.model.Player;
+import com.paperio.server.model.Trail;
+import com.paperio.server.network.protocol.LeaderboardEntryDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary world-state encoding. Coordinates are fixed-point ({@link #COORD_SCALE} steps per unit),
+ * point lists are delta-coded zigzag varints and players are referenced by their per-room {@code netId}.
+ * <p>
+ * Layout: {@code type:u8, timestamp:varint, ack:varint, allPlayers:varint, leaderboard, entered[]}
+ * followed, for deltas only, by {@code updated[], left[]}. Multi-byte fixed fields are big-endian.
+ * <p>
+ * Player entries are encoded at most once per tick (per distinct delta shape) and copied into later frames.
+ * Frames are assembled in a reusable scratch buffer; the returned message owns an exact-size copy, so it can
+ * be handed to another thread for writing.
+ */
+public class BinaryFrameEncoder implements FrameEncoder {
+    public static final byte SNAPSHOT = 1;
+    public static final byte DELTA = 2;
+    public static final double COORD_SCALE = 8.0;
+
+    private static final double ANGLE_SCALE = 65536.0 / (2 * Math.PI);
+    private static final int FLAG_ALIVE = 1;
+    private static final int FLAG_TERRITORY = 2;
+
+    private final Map<Player, byte[]> fullFragments = new HashMap<>();
+    private final Map<WorldFrame.PlayerUpdate, byte[]> updateFragments = new HashMap<>();
+
+    private final double reducedTolerance;
+    private ByteBuffer buf = ByteBuffer.allocate(16 * 1024);
+
+    public BinaryFrameEncoder(double reducedTolerance) {
+        this.reducedTolerance = reducedTolerance;
+    }
+
+    @Override
+    public void beginTick() {
+        fullFragments.clear();
+        updateFragments.clear();
+    }
+
+    @Override
+    public OutboundFrame encode(WorldFrame frame) {
+        buf.clear();
+        putByte(frame.keyframe() ? SNAPSHOT : DELTA);
+        putVarLong(frame.timestamp());
+        putVarInt(frame.ack());
+        putVarInt(frame.allPlayers());
+        writeLeaderboard(frame.leaderboard());
+
+        putVarInt(frame.entered().size());
+        for (Player p : frame.entered()) writeFull(p);
+
+        if (!frame.keyframe()) {
+            putVarInt(frame.updated().size());
+            for (WorldFrame.PlayerUpdate u : frame.updated()) writeUpdate(u);
+
+            putVarInt(frame.left().size());
+            for (Player p : frame.left()) putVarInt(p.getNetId());
+        }
+
+        return OutboundFrame.binary(copySince(0));
+    }
+
+    private void writeLeaderboard(List<LeaderboardEntryDTO> leaderboard) {
+        putVarInt(leaderboard.size());
+        for (LeaderboardEntryDTO entry : leaderboard) {
+            putString(entry.name());
+            putVarInt(entry.score());
+            putColor(entry.color());
+        }
+    }
+
+    private void writeFull(Player p) {
+        byte[] cached = fullFragments.get(p);
+        if (cached != null) {
+            putBytes(cached);
+            return;
+        }
+
+        int start = buf.position();
+        putVarInt(p.getNetId());
+        putString(p.getName());
+        putColor(p.getColor());
+        writeHead(p, p.isAlive() ? FLAG_ALIVE : 0);
+        writePoints(p.getTrail(), 0);
+        writeTerritory(p.getTerritoryRings());
+        fullFragments.put(p, copySince(start));
+    }
+
+    private void writeUpdate(WorldFrame.PlayerUpdate u) {
+        byte[] cached = updateFragments.get(u);
+        if (cached != null) {
+            putBytes(cached);
+            return;
+        }
+
+        int start = buf.position();
+        Player p = u.player();
+        int flags = (p.isAlive() ? FLAG_ALIVE : 0) | (u.territoryChanged() ? FLAG_TERRITORY : 0);
+
+        putVarInt(p.getNetId());
+        writeHead(p, flags);
+        putVarInt(u.trailFrom());
+        writePoints(p.getTrail(), u.trailStart());
+        if (u.territoryChanged()) {
+            writeTerritory(u.reduced() ? p.getReducedTerritoryRings(reducedTolerance) : p.getTerritoryRings());
+        }
+        updateFragments.put(u, copySince(start));
+    }
+
+    private void writeHead(Player p, int flags) {
+        putVarInt(zigzag(quantize(p.getX())));
+        putVarInt(zigzag(quantize(p.getY())));
+        putVarInt(p.getScore());
+
+        double angle = p.getAngle() % (2 * Math.PI);
+        if (angle < 0) angle += 2 * Math.PI;
+        ensure(3);
+        buf.putShort((short) ((int) (angle * ANGLE_SCALE) & 0xFFFF));
+        buf.put((byte) flags);
+    }
+
+    private void writePoints(Trail trail, int from) {
+        int count = Math.max(0, trail.size() - from);
+        putVarInt(count);
+        int prevX = 0;
+        int prevY = 0;
+        for (int i = from; i < trail.size(); i++) {
+            int qx = quantize(trail.getX(i));
+            int qy = quantize(trail.getY(i));
+            putVarInt(zigzag(qx - prevX));
+            putVarInt(zigzag(qy - prevY));
+            prevX = qx;
+            prevY = qy;
+        }
+    }
+
+    private void writeTerritory(double[][] rings) {
+        putVarInt(rings.length);
+        for (double[] ring : rings) {
+            putVarInt(ring.length / 2);
+            int prevX = 0;
+            int prevY = 0;
+            for (int j = 0; j < ring.length; j += 2) {
+                int qx = quantize(ring[j]);
+                int qy = quantize(ring[j + 1]);
+                putVarInt(zigzag(qx - prevX));
+                putVarInt(zigzag(qy - prevY));
+                prevX = qx;
+                prevY = qy;
+            }
+        }
+    }
+
+    private static int quantize(double v) {
+        return (int) Math.round(v * COORD_SCALE);
+    }
+
+    private static int zigzag(int v) {
+        return (v << 1) ^ (v >> 31);
+    }
+
+    private byte[] copySince(int start) {
+        byte[] fragment = new byte[buf.position() - start];
+        buf.get(start, fragment);
+        return fragment;
+    }
+
+    private void putBytes(byte[] bytes) {
+        ensure(bytes.length);
+        buf.put(bytes);
+    }
+
+    private void putByte(int b) {
+        ensure(1);
+        buf.put((byte) b);
+    }
+
+    private void putColor(String hex) {
+        int rgb = Integer.parseInt(hex.substring(1), 16);
+        ensure(3);
+        buf.put((byte) (rgb >> 16));
+        buf.put((byte) (rgb >> 8));
+        buf.put((byte) rgb);
+    }
+
+    private void putString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarInt(bytes.length);
+        putBytes(bytes);
+    }
+
+    private void putVarInt(int v) {
+        ensure(5);
+        while ((v & ~0x7F) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    private void putVarLong(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    private void ensure(int bytes) {
+        if (buf.remaining() >= bytes) return;
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + bytes));
+        buf.flip();
+        grown.put(buf);
+        buf = grown;
+    }
+}
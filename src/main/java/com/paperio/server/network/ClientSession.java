@@ -0,0 +1,20 @@
+package com.paperio.server.network;
+
+import java.io.IOException;
+
+/**
+ * Transport-neutral handle on a connected client. Frames arrive already encoded; each transport turns them into
+ * its own wire frames. Calls are serialized by {@link SessionSender}, so implementations need not be
+ * thread-safe for concurrent sends.
+ */
+public interface ClientSession {
+    String getId();
+
+    WireFormat getFormat();
+
+    boolean isOpen();
+
+    void send(OutboundFrame frame) throws IOException;
+
+    void close(CloseReason reason) throws IOException;
+}
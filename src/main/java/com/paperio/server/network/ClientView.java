@@ -0,0 +1,158 @@
+package com.paperio.server.network;
+
+import com.paperio.server.config.GameProperties;
+import com.paperio.server.model.Player;
+import com.paperio.server.model.Trail;
+import com.paperio.server.network.protocol.LeaderboardEntryDTO;
+import lombok.Getter;
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers what a single client has been sent so that each frame only carries what changed since.
+ * A state frame may never reach the client: its {@code SessionSender} keeps only the newest unsent one, so deltas
+ * built on a dropped frame would be wrong. Correctness therefore depends on {@code GameRoom.broadcast} forcing a
+ * keyframe via {@link #requestKeyframe()} whenever the session is backlogged; otherwise delivery is ordered and
+ * reliable, and the last state sent is the state the client holds.
+ * A full snapshot is sent on the first frame and then every {@code keyframeInterval} frames.
+ * <p>
+ * Players within {@code nearRadius} of the observer get full deltas every frame; farther ones get reduced,
+ * less frequent deltas (see {@link #farUpdate}).
+ */
+public class ClientView {
+    private final Map<String, SentState> sent = new HashMap<>();
+    private final int keyframeInterval;
+    private final GameProperties.LodConfig lod;
+    @Getter private final WireFormat format;
+
+    private long frame = 0;
+    private long lastKeyframe = Long.MIN_VALUE;
+
+    public ClientView(int keyframeInterval, GameProperties.LodConfig lod, WireFormat format) {
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        this.lod = lod;
+        this.format = format;
+    }
+
+    public void requestKeyframe() {
+        lastKeyframe = Long.MIN_VALUE;
+    }
+
+    public WorldFrame nextFrame(long timestamp, int allPlayers, Player observer, Collection<Player> visible,
+                                List<LeaderboardEntryDTO> leaderboard) {
+        frame++;
+        int ack = observer.getLastInputSeq();
+        if (lastKeyframe == Long.MIN_VALUE || frame - lastKeyframe >= keyframeInterval) {
+            return keyframe(timestamp, ack, allPlayers, visible, leaderboard);
+        }
+
+        List<Player> entered = new ArrayList<>();
+        List<WorldFrame.PlayerUpdate> updated = new ArrayList<>(visible.size());
+
+        for (Player p : visible) {
+            SentState state = sent.get(p.getId());
+            if (state == null) {
+                entered.add(p);
+                sent.put(p.getId(), new SentState(p, frame));
+                continue;
+            }
+
+            WorldFrame.PlayerUpdate update = isNear(observer, p) ? nearUpdate(p, state) : farUpdate(p, state);
+            if (update != null) updated.add(update);
+            state.frame = frame;
+        }
+
+        List<Player> left = new ArrayList<>();
+        sent.values().removeIf(state -> {
+            if (state.frame == frame) return false;
+            left.add(state.player);
+            return true;
+        });
+
+        return new WorldFrame(false, timestamp, ack, allPlayers, entered, updated, left, leaderboard);
+    }
+
+    /** Full-fidelity delta; if the client holds a reduced copy, the whole trail and territory are resent. */
+    private WorldFrame.PlayerUpdate nearUpdate(Player p, SentState state) {
+        int trailFrom = !state.reduced && state.trailEpoch == p.getTrail().getEpoch()
+                ? Math.min(state.trailSize, p.getTrail().size())
+                : 0;
+        boolean territoryChanged = state.reduced || state.territoryVersion != p.getTerritoryVersion();
+
+        state.synced(p, p.getTrail().size(), false);
+        return new WorldFrame.PlayerUpdate(p, trailFrom, trailFrom, territoryChanged, false);
+    }
+
+    /**
+     * Reduced delta, sent only every {@code farInterval} frames (staggered by net id). A changed trail is
+     * replaced by its last {@code farTrailPoints} points and territory is sent simplified.
+     */
+    private WorldFrame.PlayerUpdate farUpdate(Player p, SentState state) {
+        if ((frame + p.getNetId()) % Math.max(1, lod.farInterval()) != 0) return null;
+
+        Trail trail = p.getTrail();
+        boolean trailChanged = !state.reduced || state.trailEpoch != trail.getEpoch() || state.trailSize != trail.size();
+        boolean territoryChanged = !state.reduced || state.territoryVersion != p.getTerritoryVersion();
+
+        int trailFrom = state.clientTrailSize;
+        int trailStart = trail.size();
+        if (trailChanged) {
+            trailFrom = 0;
+            trailStart = Math.max(0, trail.size() - lod.farTrailPoints());
+        }
+
+        state.synced(p, trailChanged ? trail.size() - trailStart : state.clientTrailSize, true);
+        return new WorldFrame.PlayerUpdate(p, trailFrom, trailStart, territoryChanged, true);
+    }
+
+    private boolean isNear(Player observer, Player p) {
+        if (observer == p) return true;
+        double x = observer.getX();
+        double y = observer.getY();
+        double r = lod.nearRadius();
+        if (Math.abs(p.getX() - x) <= r && Math.abs(p.getY() - y) <= r) return true;
+        Envelope env = p.getTerritory().getEnvelopeInternal();
+        double dx = Math.max(0, Math.max(env.getMinX() - x, x - env.getMaxX()));
+        double dy = Math.max(0, Math.max(env.getMinY() - y, y - env.getMaxY()));
+        return dx <= r && dy <= r;
+    }
+
+    private WorldFrame keyframe(long timestamp, int ack, int allPlayers, Collection<Player> visible,
+                                List<LeaderboardEntryDTO> leaderboard) {
+        sent.clear();
+        for (Player p : visible) {
+            sent.put(p.getId(), new SentState(p, frame));
+        }
+        lastKeyframe = frame;
+        return new WorldFrame(true, timestamp, ack, allPlayers, List.copyOf(visible), List.of(), List.of(), leaderboard);
+    }
+
+    private static final class SentState {
+        private final Player player;
+        private int trailEpoch;
+        private int trailSize;
+        private int clientTrailSize;
+        private int territoryVersion;
+        private boolean reduced;
+        private long frame;
+
+        private SentState(Player player, long frame) {
+            this.player = player;
+            this.frame = frame;
+            synced(player, player.getTrail().size(), false);
+        }
+
+        private void synced(Player p, int clientTrailSize, boolean reduced) {
+            this.trailEpoch = p.getTrail().getEpoch();
+            this.trailSize = p.getTrail().size();
+            this.clientTrailSize = clientTrailSize;
+            this.territoryVersion = p.getTerritoryVersion();
+            this.reduced = reduced;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.paperio.server.network;
+
+/** WebSocket close code and reason, independent of the transport. */
+public record CloseReason(int code, String reason) {
+    public static final CloseReason DEATH = new CloseReason(4000, "DEATH");
+    public static final CloseReason TOO_SLOW = new CloseReason(4500, "Too slow");
+    public static final CloseReason SERVER_ERROR = new CloseReason(1011, "");
+}
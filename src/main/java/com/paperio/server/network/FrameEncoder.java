@@ -0,0 +1,9 @@
+package com.paperio.server.network;
+
+import java.io.IOException;
+
+public interface FrameEncoder {
+    default void beginTick() {}
+
+    OutboundFrame encode(WorldFrame frame) throws IOException;
+}
@@ -2,22 +2,27 @@ package com.paperio.server.network;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paperio.server.engine.GameEngine;
-import com.paperio.server.network.protocol.InitPacket;
 import com.paperio.server.network.protocol.InputPacket;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
 import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 
 @Slf4j
 @Component
-public class GameSocketHandler extends TextWebSocketHandler {
+public class GameSocketHandler extends AbstractWebSocketHandler {
 
     private final GameEngine gameEngine;
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -28,12 +33,15 @@ public class GameSocketHandler extends TextWebSocketHandler {
 
     @Override
     public void afterConnectionEstablished(@NonNull WebSocketSession session) throws IOException {
-        String playerName = extractNameFromSession(session);
-        log.info("New connection: SessionID={} Name={}", session.getId(), playerName);
-        gameEngine.joinGame(session, playerName);
+        MultiValueMap<String, String> query = extractQuery(session);
+        String rawName = query.getFirst("name");
+        String playerName = rawName != null && !rawName.isEmpty()
+                ? UriUtils.decode(rawName, StandardCharsets.UTF_8)
+                : "Guest-" + session.getId().substring(0, 4);
+        session.getAttributes().put(WireFormat.ATTRIBUTE, WireFormat.fromQuery(query.getFirst("proto")));
 
-        var init = new InitPacket("INIT", session.getId());
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(init)));
+        log.info("New connection: SessionID={} Name={} Format={}", session.getId(), playerName, WireFormat.of(session));
+        gameEngine.joinGame(new SpringClientSession(session), playerName);
 
         log.info("Player joined: {} with ID: {}", playerName, session.getId());
     }
@@ -41,7 +49,13 @@ public class GameSocketHandler extends TextWebSocketHandler {
     @Override
     protected void handleTextMessage(@NonNull WebSocketSession session, TextMessage message) throws Exception {
         var packet = objectMapper.readValue(message.getPayload(), InputPacket.class);
-        gameEngine.handleInput(session.getId(), packet.x(), packet.y());
+        gameEngine.handleInput(session.getId(), packet.x(), packet.y(), packet.seq());
+    }
+
+    @Override
+    protected void handleBinaryMessage(@NonNull WebSocketSession session, BinaryMessage message) {
+        var packet = InputPacket.fromBinary(message.getPayload());
+        if (packet != null) gameEngine.handleInput(session.getId(), packet.x(), packet.y(), packet.seq());
     }
 
     @Override
@@ -50,14 +64,10 @@ public class GameSocketHandler extends TextWebSocketHandler {
         gameEngine.leaveGame(session.getId());
     }
 
-    private String extractNameFromSession(WebSocketSession session) {
+    private MultiValueMap<String, String> extractQuery(WebSocketSession session) {
         URI uri = session.getUri();
-        if (uri != null && uri.getQuery() != null) {
-            String query = uri.getQuery();
-            if (query.startsWith("name=")) {
-                return query.split("=")[1];
-            }
-        }
-        return "Guest-" + session.getId().substring(0, 4);
+        return uri != null
+                ? UriComponentsBuilder.fromUri(uri).build().getQueryParams()
+                : new LinkedMultiValueMap<>();
     }
-}
\ No newline at end of file
+}
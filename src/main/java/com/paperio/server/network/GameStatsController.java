@@ -14,10 +14,17 @@ public class GameStatsController {
     private final GameEngine gameEngine;
 
     @GetMapping("/stats")
-    public Map<String, Integer> getGlobalStats() {
+    public Map<String, Number> getGlobalStats() {
         return Map.of(
                 "players", gameEngine.getTotalPlayerCount(),
-                "rooms", gameEngine.getRoomCount()
+                "rooms", gameEngine.getRoomCount(),
+                "territoryVertices", gameEngine.getTotalTerritoryVertices(),
+                "maxTerritoryVertices", gameEngine.getMaxTerritoryVertices(),
+                "overrunTicks", gameEngine.getOverrunTicks(),
+                "skippedTicks", gameEngine.getSkippedTicks(),
+                "averageFrameBytes", gameEngine.getAverageFrameBytes(),
+                "outboundQueueDepth", gameEngine.getOutboundQueueDepth(),
+                "droppedFrames", gameEngine.getDroppedFrames()
         );
     }
 }
\ No newline at end of file
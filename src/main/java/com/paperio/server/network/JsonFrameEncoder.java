@@ -0,0 +1,101 @@
+package com.paperio.server.network;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.paperio.server.model.Player;
+import com.paperio.server.network.protocol.LeaderboardEntryDTO;
+import com.paperio.server.network.protocol.WorldDeltaDTO;
+import com.paperio.server.network.protocol.WorldStateDTO;
+import com.paperio.server.util.PlayerMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Each player entry is serialized at most once per tick (per distinct delta shape) and then spliced
+ * into every observer's frame as raw UTF-8, so serialization cost grows with players, not observers.
+ */
+public class JsonFrameEncoder implements FrameEncoder {
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String DELTA = "DELTA";
+
+    private final ObjectMapper objectMapper;
+    private final double reducedTolerance;
+    private final Map<Player, RawValue> fullFragments = new HashMap<>();
+    private final Map<WorldFrame.PlayerUpdate, RawValue> updateFragments = new HashMap<>();
+
+    private List<LeaderboardEntryDTO> leaderboardSource;
+    private RawValue leaderboardFragment;
+
+    public JsonFrameEncoder(ObjectMapper objectMapper, double reducedTolerance) {
+        this.objectMapper = objectMapper;
+        this.reducedTolerance = reducedTolerance;
+    }
+
+    @Override
+    public void beginTick() {
+        fullFragments.clear();
+        updateFragments.clear();
+        leaderboardSource = null;
+        leaderboardFragment = null;
+    }
+
+    @Override
+    public OutboundFrame encode(WorldFrame frame) throws IOException {
+        List<RawValue> entered = new ArrayList<>(frame.entered().size());
+        for (Player p : frame.entered()) entered.add(fullFragment(p));
+
+        Object dto;
+        if (frame.keyframe()) {
+            dto = new WorldStateDTO(SNAPSHOT, frame.timestamp(), frame.ack(), frame.allPlayers(), entered,
+                    leaderboardFragment(frame.leaderboard()));
+        } else {
+            List<RawValue> updated = new ArrayList<>(frame.updated().size());
+            for (WorldFrame.PlayerUpdate u : frame.updated()) updated.add(updateFragment(u));
+
+            List<String> left = frame.left().stream().map(Player::getId).toList();
+            dto = new WorldDeltaDTO(DELTA, frame.timestamp(), frame.ack(), frame.allPlayers(), entered, updated, left,
+                    leaderboardFragment(frame.leaderboard()));
+        }
+
+        return OutboundFrame.text(objectMapper.writeValueAsBytes(dto));
+    }
+
+    private RawValue fullFragment(Player p) throws JsonProcessingException {
+        RawValue cached = fullFragments.get(p);
+        if (cached == null) {
+            cached = raw(PlayerMapper.toDTO(p));
+            fullFragments.put(p, cached);
+        }
+        return cached;
+    }
+
+    private RawValue updateFragment(WorldFrame.PlayerUpdate u) throws JsonProcessingException {
+        RawValue cached = updateFragments.get(u);
+        if (cached == null) {
+            Player p = u.player();
+            double[][] territory = !u.territoryChanged() ? null
+                    : u.reduced() ? p.getReducedTerritoryRings(reducedTolerance) : p.getTerritoryRings();
+            cached = raw(PlayerMapper.toDelta(p, u.trailFrom(), u.trailStart(), territory));
+            updateFragments.put(u, cached);
+        }
+        return cached;
+    }
+
+    private RawValue leaderboardFragment(List<LeaderboardEntryDTO> leaderboard) throws JsonProcessingException {
+        if (leaderboard != leaderboardSource) {
+            leaderboardFragment = raw(leaderboard);
+            leaderboardSource = leaderboard;
+        }
+        return leaderboardFragment;
+    }
+
+    private RawValue raw(Object value) throws JsonProcessingException {
+        return new RawValue(new SerializedString(objectMapper.writeValueAsString(value)));
+    }
+}
@@ -0,0 +1,17 @@
+package com.paperio.server.network;
+
+/** An encoded WebSocket message (text frames carry UTF-8), independent of the transport that writes it. */
+public record OutboundFrame(boolean text, byte[] payload) {
+
+    public static OutboundFrame text(byte[] utf8) {
+        return new OutboundFrame(true, utf8);
+    }
+
+    public static OutboundFrame binary(byte[] payload) {
+        return new OutboundFrame(false, payload);
+    }
+
+    public int length() {
+        return payload.length;
+    }
+}
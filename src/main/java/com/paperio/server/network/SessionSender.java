@@ -0,0 +1,112 @@
+package com.paperio.server.network;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking outbound channel for one client session. The game thread only enqueues; a task on the
+ * outbound executor performs the writes, so a slow client never stalls a room tick and sends to one session
+ * are never concurrent. Control messages are delivered in order from a bounded queue, while state frames
+ * supersede each other so at most the newest one is waiting. A client that keeps falling behind is closed.
+ */
+@Slf4j
+public class SessionSender {
+    @Getter private final ClientSession session;
+    private final Executor executor;
+    private final int maxStaleFrames;
+    private final LongAdder droppedFrames;
+    private final BlockingQueue<OutboundFrame> control;
+    private final AtomicReference<OutboundFrame> pendingState = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile CloseReason closeReason;
+    private int staleFrames;
+
+    public SessionSender(ClientSession session, Executor executor, int controlCapacity, int maxStaleFrames,
+                         LongAdder droppedFrames) {
+        this.session = session;
+        this.executor = executor;
+        this.maxStaleFrames = maxStaleFrames;
+        this.droppedFrames = droppedFrames;
+        this.control = new ArrayBlockingQueue<>(Math.max(1, controlCapacity));
+    }
+
+    public boolean isOpen() {
+        return closeReason == null && session.isOpen();
+    }
+
+    /** True while the previous state frame has not been written yet; the next one will supersede it. */
+    public boolean isBacklogged() {
+        return pendingState.get() != null;
+    }
+
+    public int queueDepth() {
+        return control.size() + (isBacklogged() ? 1 : 0);
+    }
+
+    /** Game thread only. Replaces any unsent state frame; too many replacements in a row disconnect the client. */
+    public void offerState(OutboundFrame frame) {
+        if (pendingState.getAndSet(frame) != null) {
+            droppedFrames.increment();
+            if (++staleFrames > maxStaleFrames) {
+                close(CloseReason.TOO_SLOW);
+                return;
+            }
+        } else {
+            staleFrames = 0;
+        }
+        schedule();
+    }
+
+    public void offerControl(OutboundFrame message) {
+        if (!control.offer(message)) {
+            close(CloseReason.TOO_SLOW);
+            return;
+        }
+        schedule();
+    }
+
+    /** Closes the session once everything already queued has been written. */
+    public void close(CloseReason reason) {
+        if (closeReason == null) closeReason = reason;
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            OutboundFrame next;
+            while ((next = nextMessage()) != null && session.isOpen()) {
+                session.send(next);
+            }
+            CloseReason reason = closeReason;
+            if (reason != null && session.isOpen()) session.close(reason);
+        } catch (IOException | RuntimeException e) {
+            log.debug("Outbound write failed for session {}, closing", session.getId(), e);
+            closeReason = CloseReason.SERVER_ERROR;
+            try { session.close(CloseReason.SERVER_ERROR); }
+            catch (IOException ignored) {}
+        } finally {
+            scheduled.set(false);
+        }
+
+        if (session.isOpen() && (!control.isEmpty() || isBacklogged() || closeReason != null)) schedule();
+    }
+
+    private OutboundFrame nextMessage() {
+        OutboundFrame next = control.poll();
+        return next != null ? next : pendingState.getAndSet(null);
+    }
+}
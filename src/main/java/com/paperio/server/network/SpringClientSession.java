@@ -0,0 +1,44 @@
+package com.paperio.server.network;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+
+/** {@link ClientSession} backed by a servlet-container WebSocket session. */
+public class SpringClientSession implements ClientSession {
+    private final WebSocketSession session;
+    private final WireFormat format;
+
+    public SpringClientSession(WebSocketSession session) {
+        this.session = session;
+        this.format = WireFormat.of(session);
+    }
+
+    @Override
+    public String getId() {
+        return session.getId();
+    }
+
+    @Override
+    public WireFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return session.isOpen();
+    }
+
+    @Override
+    public void send(OutboundFrame frame) throws IOException {
+        session.sendMessage(frame.text() ? new TextMessage(frame.payload()) : new BinaryMessage(frame.payload()));
+    }
+
+    @Override
+    public void close(CloseReason reason) throws IOException {
+        session.close(new CloseStatus(reason.code(), reason.reason()));
+    }
+}
@@ -0,0 +1,19 @@
+package com.paperio.server.network;
+
+import org.springframework.web.socket.WebSocketSession;
+
+public enum WireFormat {
+    JSON,
+    BINARY;
+
+    public static final String ATTRIBUTE = "wireFormat";
+
+    public static WireFormat of(WebSocketSession session) {
+        return session.getAttributes().get(ATTRIBUTE) instanceof WireFormat format ? format : JSON;
+    }
+
+    /** Maps the {@code proto} query parameter of the connect URL. */
+    public static WireFormat fromQuery(String proto) {
+        return "bin".equals(proto) ? BINARY : JSON;
+    }
+}
@@ -0,0 +1,23 @@
+package com.paperio.server.network;
+
+import com.paperio.server.model.Player;
+import com.paperio.server.network.protocol.LeaderboardEntryDTO;
+
+import java.util.List;
+
+public record WorldFrame(
+        boolean keyframe,
+        long timestamp,
+        int ack,
+        int allPlayers,
+        List<Player> entered,
+        List<PlayerUpdate> updated,
+        List<Player> left,
+        List<LeaderboardEntryDTO> leaderboard
+) {
+    /**
+     * The client truncates its copy of the trail to {@code trailFrom} points and appends the server's points
+     * from {@code trailStart} on. A reduced update carries the simplified territory outline.
+     */
+    public record PlayerUpdate(Player player, int trailFrom, int trailStart, boolean territoryChanged, boolean reduced) {}
+}
@@ -0,0 +1,68 @@
+package com.paperio.server.network.netty;
+
+import com.paperio.server.network.ClientSession;
+import com.paperio.server.network.CloseReason;
+import com.paperio.server.network.OutboundFrame;
+import com.paperio.server.network.WireFormat;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+
+import java.io.IOException;
+
+/**
+ * {@link ClientSession} on a Netty channel. Each encoded frame is copied once into a direct buffer from the
+ * channel's pooled allocator, so the socket write needs no further copy and buffers are recycled after it.
+ * This is one copy per recipient, not a zero-copy write: world frames are per-session deltas, so there is no
+ * shared payload that could be encoded once and handed out as retained duplicates.
+ * Writes normally return immediately; only once the channel's outbound buffer passes its high-water mark does
+ * {@link #send} wait for the write, which lets {@code SessionSender} see the client as backlogged.
+ */
+public class NettyClientSession implements ClientSession {
+    private final Channel channel;
+    private final WireFormat format;
+
+    public NettyClientSession(Channel channel, WireFormat format) {
+        this.channel = channel;
+        this.format = format;
+    }
+
+    @Override
+    public String getId() {
+        return channel.id().asLongText();
+    }
+
+    @Override
+    public WireFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isActive();
+    }
+
+    @Override
+    public void send(OutboundFrame frame) throws IOException {
+        ByteBuf content = channel.alloc().directBuffer(frame.length());
+        content.writeBytes(frame.payload());
+        WebSocketFrame wsFrame = frame.text() ? new TextWebSocketFrame(content) : new BinaryWebSocketFrame(content);
+
+        ChannelFuture write = channel.writeAndFlush(wsFrame);
+        if (!channel.isWritable()) {
+            write.awaitUninterruptibly();
+            if (!write.isSuccess()) throw new IOException("Write failed on " + getId(), write.cause());
+        }
+    }
+
+    @Override
+    public void close(CloseReason reason) {
+        channel.writeAndFlush(new CloseWebSocketFrame(reason.code(), reason.reason()))
+                .addListener(ChannelFutureListener.CLOSE);
+    }
+}
@@ -0,0 +1,94 @@
+package com.paperio.server.network.netty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paperio.server.engine.GameEngine;
+import com.paperio.server.network.WireFormat;
+import com.paperio.server.network.protocol.InputPacket;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Per-connection counterpart of {@code GameSocketHandler} for the Netty transport: joins the game once the
+ * WebSocket handshake completes, forwards inputs and leaves the game when the channel goes inactive.
+ */
+@Slf4j
+class NettyGameHandler extends SimpleChannelInboundHandler<WebSocketFrame> {
+    private final GameEngine gameEngine;
+    private final ObjectMapper objectMapper;
+    private final Set<String> allowedOrigins;
+    private NettyClientSession session;
+
+    NettyGameHandler(GameEngine gameEngine, ObjectMapper objectMapper, Set<String> allowedOrigins) {
+        this.gameEngine = gameEngine;
+        this.objectMapper = objectMapper;
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (!(evt instanceof WebSocketServerProtocolHandler.HandshakeComplete handshake)) {
+            super.userEventTriggered(ctx, evt);
+            return;
+        }
+
+        String origin = handshake.requestHeaders().get(HttpHeaderNames.ORIGIN);
+        if (!allowedOrigins.contains("*") && (origin == null || !allowedOrigins.contains(origin))) {
+            log.info("Rejected Netty connection from origin {}", origin);
+            ctx.close();
+            return;
+        }
+
+        MultiValueMap<String, String> query = UriComponentsBuilder.fromUriString(handshake.requestUri())
+                .build().getQueryParams();
+        session = new NettyClientSession(ctx.channel(), WireFormat.fromQuery(query.getFirst("proto")));
+        String rawName = query.getFirst("name");
+        String playerName = rawName != null && !rawName.isEmpty()
+                ? UriUtils.decode(rawName, StandardCharsets.UTF_8)
+                : "Guest-" + session.getId().substring(0, 4);
+
+        log.info("New Netty connection: SessionID={} Name={} Format={}", session.getId(), playerName, session.getFormat());
+        gameEngine.joinGame(session, playerName);
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, WebSocketFrame frame) throws Exception {
+        if (session == null) return;
+        InputPacket packet = switch (frame) {
+            // ByteBufInputStream is also a DataInput, so pick the InputStream overload explicitly
+            case TextWebSocketFrame text -> objectMapper.readValue(
+                    (InputStream) new ByteBufInputStream(text.content()), InputPacket.class);
+            case BinaryWebSocketFrame binary -> InputPacket.fromBinary(binary.content().nioBuffer());
+            default -> null;
+        };
+        if (packet != null) gameEngine.handleInput(session.getId(), packet.x(), packet.y(), packet.seq());
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (session != null) {
+            log.info("Netty connection closed: SessionID={}", session.getId());
+            gameEngine.leaveGame(session.getId());
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        log.debug("Closing Netty connection after error", cause);
+        ctx.close();
+    }
+}
@@ -0,0 +1,97 @@
+package com.paperio.server.network.netty;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paperio.server.config.GameProperties;
+import com.paperio.server.engine.GameEngine;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.MultiThreadIoEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolConfig;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Optional WebSocket endpoint on a plain Netty pipeline, running beside the servlet one and feeding the same
+ * {@link GameEngine}. Channels use the pooled (direct by default) allocator and a write-buffer water mark that
+ * drives backpressure in {@link NettyClientSession}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "game.transport.netty.enabled", havingValue = "true")
+public class NettyTransport {
+    private static final int HANDSHAKE_MAX_BYTES = 8 * 1024;
+
+    private final GameEngine gameEngine;
+    private final GameProperties.NettyConfig config;
+    private final Set<String> allowedOrigins;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private Channel serverChannel;
+
+    public NettyTransport(GameEngine gameEngine, GameProperties props,
+                          @Value("${game.cors.allowed-origins}") String allowedOrigins) {
+        this.gameEngine = gameEngine;
+        this.config = props.transport().netty();
+        this.allowedOrigins = Set.of(allowedOrigins.split(","));
+    }
+
+    @PostConstruct
+    public void start() throws InterruptedException {
+        bossGroup = new MultiThreadIoEventLoopGroup(1, NioIoHandler.newFactory());
+        workerGroup = new MultiThreadIoEventLoopGroup(config.workerThreads(), NioIoHandler.newFactory());
+
+        WebSocketServerProtocolConfig wsConfig = WebSocketServerProtocolConfig.newBuilder()
+                .websocketPath(config.path())
+                .checkStartsWith(true)
+                .maxFramePayloadLength(config.maxFrameBytes())
+                .build();
+
+        serverChannel = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(NioServerSocketChannel.class)
+                .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(64 * 1024, 256 * 1024))
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(
+                                new HttpServerCodec(),
+                                new HttpObjectAggregator(HANDSHAKE_MAX_BYTES),
+                                new WebSocketServerProtocolHandler(wsConfig),
+                                new NettyGameHandler(gameEngine, objectMapper, allowedOrigins));
+                    }
+                })
+                .bind(config.port())
+                .sync()
+                .channel();
+
+        log.info("Netty WebSocket transport listening on port {} at {}", config.port(), config.path());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (serverChannel != null) serverChannel.close().syncUninterruptibly();
+        if (bossGroup != null) bossGroup.shutdownGracefully();
+        if (workerGroup != null) workerGroup.shutdownGracefully();
+    }
+}
@@ -1,3 +1,3 @@
 package com.paperio.server.network.protocol;
 
-public record InitPacket(String type, String playerId) {}
+public record InitPacket(String type, String playerId, int netId) {}
@@ -1,3 +1,15 @@
 package com.paperio.server.network.protocol;
 
-public record InputPacket(double x, double y) {}
\ No newline at end of file
+import java.nio.ByteBuffer;
+
+public record InputPacket(double x, double y, int seq) {
+
+    /** Decodes the binary input layout {@code x:f32, y:f32[, seq:u32]}; returns null if the payload is too short. */
+    public static InputPacket fromBinary(ByteBuffer payload) {
+        if (payload.remaining() < 8) return null;
+        float x = payload.getFloat();
+        float y = payload.getFloat();
+        int seq = payload.remaining() >= 4 ? payload.getInt() : 0;
+        return new InputPacket(x, y, seq);
+    }
+}
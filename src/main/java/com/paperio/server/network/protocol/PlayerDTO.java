@@ -1,7 +1,5 @@
 package com.paperio.server.network.protocol;
 
-import java.util.List;
-
 public record PlayerDTO(
         String id,
         String name,
@@ -11,6 +9,6 @@ public record PlayerDTO(
         int score,
         double angle,
         boolean isAlive,
-        List<List<Double>> trail,
-        List<List<List<Double>>> territory
+        double[] trail,
+        double[][] territory
 ) {}
\ No newline at end of file
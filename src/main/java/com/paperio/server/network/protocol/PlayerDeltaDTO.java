@@ -0,0 +1,16 @@
+package com.paperio.server.network.protocol;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PlayerDeltaDTO(
+        String id,
+        double x,
+        double y,
+        int score,
+        double angle,
+        boolean isAlive,
+        int trailFrom,
+        double[] trail,
+        double[][] territory
+) {}
@@ -0,0 +1,19 @@
+package com.paperio.server.network.protocol;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.util.List;
+
+/**
+ * Player entries and the leaderboard are pre-encoded once per tick and embedded verbatim.
+ */
+public record WorldDeltaDTO(
+        String type,
+        long timestamp,
+        int ack,
+        int allPlayers,
+        List<RawValue> entered,
+        List<RawValue> updated,
+        List<String> left,
+        RawValue leaderboard
+) {}
@@ -1,10 +1,17 @@
 package com.paperio.server.network.protocol;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+
 import java.util.List;
 
+/**
+ * Player entries and the leaderboard are pre-encoded once per tick and embedded verbatim.
+ */
 public record WorldStateDTO(
+        String type,
         long timestamp,
+        int ack,
         int allPlayers,
-        List<PlayerDTO> visiblePlayers,
-        List<LeaderboardEntryDTO> leaderboard
-) {}
\ No newline at end of file
+        List<RawValue> visiblePlayers,
+        RawValue leaderboard
+) {}
@@ -0,0 +1,11 @@
+package com.paperio.server.service;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Computes a player's territory after a trail loop closes back onto it.
+ */
+public interface ConquestEngine {
+    Geometry conquer(Geometry territory, CoordinateSequence trail);
+}
@@ -1,15 +1,27 @@
 package com.paperio.server.service;
 
+import com.paperio.server.config.GameProperties;
 import jakarta.annotation.PostConstruct;
 import org.locationtech.jts.geom.*;
 import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
-import java.util.List;
 
 @Service
 public class GeometryService {
+    private static final double MAX_BUDGET_TOLERANCE = 16.0;
+
     private final GeometryFactory factory = new GeometryFactory();
+    private final ConquestEngine conquestEngine;
+    private final int vertexBudget;
+
+    public GeometryService(GameProperties props) {
+        this.vertexBudget = props.territory().vertexBudget();
+        ConquestEngine overlay = new OverlayConquestEngine(factory);
+        this.conquestEngine = switch (props.territory().conquestEngine()) {
+            case OVERLAY -> overlay;
+            case SPLICE -> new SpliceConquestEngine(factory, overlay);
+        };
+    }
 
     @PostConstruct
     public void warmUp() {
@@ -30,42 +42,46 @@ public class GeometryService {
         return factory.createPoint(new Coordinate(x, y)).buffer(radius);
     }
 
-    public Geometry conquer(Geometry currentTerritory, List<Coordinate> trail) {
-        if (trail.size() < 3) return currentTerritory;
-        try {
-            Coordinate[] coords = trail.toArray(new Coordinate[0]);
-            LineString trailLine = factory.createLineString(coords);
-
-            Geometry thickenedTrail = trailLine.buffer(3.0);
-
-            Geometry combined = currentTerritory.union(thickenedTrail);
-
-            Geometry repaired = combined.buffer(5.0).buffer(-5.0);
+    public Geometry conquer(Geometry currentTerritory, CoordinateSequence trail) {
+        return conquestEngine.conquer(currentTerritory, trail);
+    }
 
-            Geometry filled = fillAllGaps(repaired);
+    /**
+     * Simplifies with a doubling tolerance until the territory fits the vertex budget.
+     * Territories already within budget are returned untouched.
+     */
+    public Geometry enforceVertexBudget(Geometry territory) {
+        if (vertexBudget <= 0 || territory.getNumPoints() <= vertexBudget) return territory;
 
-            return TopologyPreservingSimplifier.simplify(filled, 1.0).buffer(0);
-        } catch (Exception e) {
-            return currentTerritory;
+        Geometry simplified = territory;
+        for (double tolerance = 1.0; tolerance <= MAX_BUDGET_TOLERANCE && simplified.getNumPoints() > vertexBudget; tolerance *= 2) {
+            simplified = TopologyPreservingSimplifier.simplify(territory, tolerance);
         }
+        return simplified;
     }
 
-    private Geometry fillAllGaps(Geometry geom) {
-        if (geom.isEmpty()) return geom;
+    /**
+     * Budget pass for a territory that is being cut down. Plain simplification can turn concave corners into
+     * chords outside the input, which would let the owner grow back into whoever cut it. Here the territory is
+     * first eroded by the tolerance, so the simplified outline, which strays at most the tolerance from the
+     * eroded one, falls back inside the input; the final clip only removes rounding slivers. Every step costs the
+     * owner area, so the tolerance grows by half until the clipped result fits the budget. The returned geometry is always covered by {@code reduced}.
+     */
+    public Geometry enforceVertexBudgetWithin(Geometry reduced) {
+        if (vertexBudget <= 0 || reduced.getNumPoints() <= vertexBudget) return reduced;
 
-        List<Polygon> solids = new ArrayList<>();
-        for (int i = 0; i < geom.getNumGeometries(); i++) {
-            if (geom.getGeometryN(i) instanceof Polygon p) {
-                solids.add(factory.createPolygon(p.getExteriorRing().getCoordinates()));
+        Geometry best = reduced;
+        for (double tolerance = 1.0; tolerance <= MAX_BUDGET_TOLERANCE; tolerance *= 1.5) {
+            try {
+                Geometry eroded = reduced.buffer(-tolerance);
+                if (eroded.isEmpty()) break;
+                Geometry clipped = TopologyPreservingSimplifier.simplify(eroded, tolerance).intersection(reduced);
+                if (clipped.getNumPoints() < best.getNumPoints()) best = clipped;
+                if (clipped.getNumPoints() <= vertexBudget) return clipped;
+            } catch (TopologyException e) {
+                break;
             }
         }
-
-        if (solids.isEmpty()) return geom;
-        return solids.size() == 1 ? solids.getFirst() : factory.createMultiPolygon(solids.toArray(new Polygon[0]));
-    }
-
-    public LineString createLine(List<Coordinate> points) {
-        if (points.size() < 2) return null;
-        return factory.createLineString(points.toArray(new Coordinate[0]));
+        return best;
     }
 }
\ No newline at end of file
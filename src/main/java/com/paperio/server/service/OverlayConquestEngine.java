@@ -0,0 +1,57 @@
+package com.paperio.server.service;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unions the buffered trail into the territory, closes small gaps and fills every enclosed hole.
+ * Robust for any trail shape, but costs several full overlays per closure.
+ */
+class OverlayConquestEngine implements ConquestEngine {
+    private final GeometryFactory factory;
+
+    OverlayConquestEngine(GeometryFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public Geometry conquer(Geometry currentTerritory, CoordinateSequence trail) {
+        if (trail.size() < 3) return currentTerritory;
+        try {
+            LineString trailLine = factory.createLineString(trail);
+
+            Geometry thickenedTrail = trailLine.buffer(3.0);
+
+            Geometry combined = currentTerritory.union(thickenedTrail);
+
+            Geometry repaired = combined.buffer(5.0).buffer(-5.0);
+
+            Geometry filled = fillAllGaps(repaired);
+
+            return TopologyPreservingSimplifier.simplify(filled, 1.0).buffer(0);
+        } catch (Exception e) {
+            return currentTerritory;
+        }
+    }
+
+    private Geometry fillAllGaps(Geometry geom) {
+        if (geom.isEmpty()) return geom;
+
+        List<Polygon> solids = new ArrayList<>();
+        for (int i = 0; i < geom.getNumGeometries(); i++) {
+            if (geom.getGeometryN(i) instanceof Polygon p) {
+                solids.add(factory.createPolygon(p.getExteriorRing().getCoordinates()));
+            }
+        }
+
+        if (solids.isEmpty()) return geom;
+        return solids.size() == 1 ? solids.getFirst() : factory.createMultiPolygon(solids.toArray(new Polygon[0]));
+    }
+}
@@ -0,0 +1,131 @@
+package com.paperio.server.service;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateList;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.linearref.LengthIndexedLine;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
+
+/**
+ * Splices the trail into the exterior ring of the territory component it left from.
+ * <p>
+ * The trail's exit and entry points are projected onto the ring, which splits it into two arcs. Closing the
+ * trail with either arc gives two simple polygons: one is just the captured pocket, the other is the pocket
+ * plus the whole component. The larger one is the new component, built without a single overlay. Anything
+ * this cannot handle cleanly (trail ends on different islands, self-crossing loops, swallowed islands) is
+ * detected by the validity check and handed to the fallback engine.
+ */
+class SpliceConquestEngine implements ConquestEngine {
+    private static final double MAX_SNAP_DISTANCE = 10.0;
+    private static final double SIMPLIFY_TOLERANCE = 1.0;
+
+    private final GeometryFactory factory;
+    private final ConquestEngine fallback;
+
+    SpliceConquestEngine(GeometryFactory factory, ConquestEngine fallback) {
+        this.factory = factory;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Geometry conquer(Geometry territory, CoordinateSequence trail) {
+        if (trail.size() < 3) return territory;
+        Geometry spliced;
+        try {
+            spliced = splice(territory, trail);
+        } catch (RuntimeException e) {
+            spliced = null;
+        }
+        return spliced != null ? spliced : fallback.conquer(territory, trail);
+    }
+
+    private Geometry splice(Geometry territory, CoordinateSequence trail) {
+        if (!(territory instanceof Polygonal) || territory.isEmpty()) return null;
+
+        Coordinate first = trail.getCoordinate(0);
+        Coordinate last = trail.getCoordinate(trail.size() - 1);
+        int home = nearestComponent(territory, first);
+        if (home != nearestComponent(territory, last)) return null;
+
+        LinearRing shell = ((Polygon) territory.getGeometryN(home)).getExteriorRing();
+        LengthIndexedLine ring = new LengthIndexedLine(shell);
+        double length = shell.getLength();
+        double exit = ring.project(first);
+        double entry = ring.project(last);
+        if (first.distance(ring.extractPoint(exit)) > MAX_SNAP_DISTANCE
+                || last.distance(ring.extractPoint(entry)) > MAX_SNAP_DISTANCE) {
+            return null;
+        }
+
+        Polygon forward = enclose(trail, ring, exit, entry, length, true);
+        Polygon backward = enclose(trail, ring, exit, entry, length, false);
+        if (forward == null || backward == null) return null;
+        Polygon grown = forward.getArea() >= backward.getArea() ? forward : backward;
+
+        Geometry result = replaceComponent(territory, home, grown);
+        if (!result.isValid() || result.getArea() < territory.getArea()) return null;
+        return TopologyPreservingSimplifier.simplify(result, SIMPLIFY_TOLERANCE);
+    }
+
+    private Polygon enclose(CoordinateSequence trail, LengthIndexedLine ring,
+                            double exit, double entry, double length, boolean forward) {
+        CoordinateList coords = new CoordinateList();
+        coords.add(ring.extractPoint(exit), false);
+        for (int i = 0; i < trail.size(); i++) {
+            coords.add(trail.getCoordinateCopy(i), false);
+        }
+        coords.add(ring.extractPoint(entry), false);
+        appendArc(coords, ring, entry, exit, length, forward);
+        coords.closeRing();
+        if (coords.size() < 4) return null;
+        return factory.createPolygon(coords.toCoordinateArray());
+    }
+
+    /** Walks the ring from one index to another in the given direction, wrapping through the ring's start point. */
+    private static void appendArc(CoordinateList coords, LengthIndexedLine ring,
+                                  double from, double to, double length, boolean forward) {
+        if (forward == (from <= to)) {
+            coords.add(ring.extractLine(from, to).getCoordinates(), false);
+        } else if (forward) {
+            coords.add(ring.extractLine(from, length).getCoordinates(), false);
+            coords.add(ring.extractLine(0, to).getCoordinates(), false);
+        } else {
+            coords.add(ring.extractLine(from, 0).getCoordinates(), false);
+            coords.add(ring.extractLine(length, to).getCoordinates(), false);
+        }
+    }
+
+    private static int nearestComponent(Geometry territory, Coordinate c) {
+        int n = territory.getNumGeometries();
+        if (n == 1) return 0;
+        Geometry probe = territory.getFactory().createPoint(c);
+        int best = 0;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            double d = territory.getGeometryN(i).distance(probe);
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /** Rebuilds the territory with the grown component; holes are dropped everywhere, as the overlay engine does. */
+    private Geometry replaceComponent(Geometry territory, int index, Polygon grown) {
+        int n = territory.getNumGeometries();
+        if (n == 1) return grown;
+        Polygon[] parts = new Polygon[n];
+        for (int i = 0; i < n; i++) {
+            parts[i] = i == index
+                    ? grown
+                    : factory.createPolygon(((Polygon) territory.getGeometryN(i)).getExteriorRing().getCoordinates());
+        }
+        return factory.createMultiPolygon(parts);
+    }
+}
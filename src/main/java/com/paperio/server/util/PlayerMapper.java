@@ -2,30 +2,12 @@ package com.paperio.server.util;
 
 import com.paperio.server.model.Player;
 import com.paperio.server.network.protocol.PlayerDTO;
-import org.locationtech.jts.geom.Polygon;
-
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.IntStream;
+import com.paperio.server.network.protocol.PlayerDeltaDTO;
 
 public class PlayerMapper {
     private PlayerMapper() {}
 
-
     public static PlayerDTO toDTO(Player p) {
-        var trail = p.getTrailPoints().stream()
-                .map(c -> List.of(c.x, c.y))
-                .toList();
-
-        var territory = IntStream.range(0, p.getTerritory().getNumGeometries())
-                .mapToObj(p.getTerritory()::getGeometryN)
-                .filter(Polygon.class::isInstance)
-                .map(Polygon.class::cast)
-                .map(poly -> Arrays.stream(poly.getExteriorRing().getCoordinates())
-                        .map(c -> List.of(c.x, c.y))
-                        .toList())
-                .toList();
-
         return new PlayerDTO(
                 p.getId(),
                 p.getName(),
@@ -35,8 +17,24 @@ public class PlayerMapper {
                 p.getScore(),
                 p.getAngle(),
                 p.isAlive(),
+                p.getTrail().toArray(0),
+                p.getTerritoryRings()
+        );
+    }
+
+    public static PlayerDeltaDTO toDelta(Player p, int trailFrom, int trailStart, double[][] territory) {
+        var trail = trailStart < p.getTrail().size() ? p.getTrail().toArray(trailStart) : null;
+
+        return new PlayerDeltaDTO(
+                p.getId(),
+                p.getX(),
+                p.getY(),
+                p.getScore(),
+                p.getAngle(),
+                p.isAlive(),
+                trailFrom,
                 trail,
                 territory
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package com.paperio.server.util;
+
+public class SegmentMath {
+    private SegmentMath() {}
+
+    public static double pointSegmentDistanceSq(double px, double py,
+                                                double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lenSq = dx * dx + dy * dy;
+        double t = lenSq == 0 ? 0 : Math.clamp(((px - ax) * dx + (py - ay) * dy) / lenSq, 0.0, 1.0);
+        double cx = ax + t * dx - px;
+        double cy = ay + t * dy - py;
+        return cx * cx + cy * cy;
+    }
+
+    public static double segmentSegmentDistanceSq(double ax, double ay, double bx, double by,
+                                                  double cx, double cy, double dx, double dy) {
+        if (properlyIntersect(ax, ay, bx, by, cx, cy, dx, dy)) return 0;
+        return Math.min(
+                Math.min(pointSegmentDistanceSq(ax, ay, cx, cy, dx, dy), pointSegmentDistanceSq(bx, by, cx, cy, dx, dy)),
+                Math.min(pointSegmentDistanceSq(cx, cy, ax, ay, bx, by), pointSegmentDistanceSq(dx, dy, ax, ay, bx, by))
+        );
+    }
+
+    private static boolean properlyIntersect(double ax, double ay, double bx, double by,
+                                             double cx, double cy, double dx, double dy) {
+        double d1 = cross(cx, cy, dx, dy, ax, ay);
+        double d2 = cross(cx, cy, dx, dy, bx, by);
+        double d3 = cross(ax, ay, bx, by, cx, cy);
+        double d4 = cross(ax, ay, bx, by, dx, dy);
+        return ((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0))
+                && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0));
+    }
+
+    private static double cross(double ox, double oy, double px, double py, double qx, double qy) {
+        return (px - ox) * (qy - oy) - (py - oy) * (qx - ox);
+    }
+}
@@ -57,11 +57,11 @@ class Renderer {
         ctx.fillStyle = p.color;
         ctx.globalAlpha = 0.35;
 
-        p.territory.forEach(polygon => {
-            if (polygon.length < 3) return;
+        p.territory.forEach(ring => {
+            if (ring.length < 6) return;
             ctx.beginPath();
-            ctx.moveTo(polygon[0][0], polygon[0][1]);
-            polygon.forEach(pt => ctx.lineTo(pt[0], pt[1]));
+            ctx.moveTo(ring[0], ring[1]);
+            for (let i = 2; i < ring.length; i += 2) ctx.lineTo(ring[i], ring[i + 1]);
             ctx.closePath();
             ctx.fill();
         });
@@ -69,7 +69,7 @@ class Renderer {
     }
 
     drawTrail(p) {
-        if (!p.trail || p.trail.length < 2) return;
+        if (!p.trail || p.trail.length < 4) return;
         const { ctx } = this;
         ctx.save();
         ctx.strokeStyle = p.color;
@@ -79,8 +79,8 @@ class Renderer {
         ctx.globalAlpha = 0.8;
 
         ctx.beginPath();
-        ctx.moveTo(p.trail[0][0], p.trail[0][1]);
-        p.trail.forEach(pt => ctx.lineTo(pt[0], pt[1]));
+        ctx.moveTo(p.trail[0], p.trail[1]);
+        for (let i = 2; i < p.trail.length; i += 2) ctx.lineTo(p.trail[i], p.trail[i + 1]);
         ctx.lineTo(p.x, p.y);
         ctx.stroke();
         ctx.restore();
@@ -206,11 +206,118 @@ class MenuBot {
         }
 
         if (this.state === 'ATTACK' && this.timer % 5 === 0) {
-            this.trail.push([this.x, this.y]);
+            this.trail.push(this.x, this.y);
         }
     }
 }
 
+class BinaryDecoder {
+    static COORD_SCALE = 8;
+    static TEXT = new TextDecoder();
+
+    constructor(buffer) {
+        this.bytes = new Uint8Array(buffer);
+        this.view = new DataView(buffer);
+        this.pos = 0;
+    }
+
+    static decodeFrame(buffer) {
+        const d = new BinaryDecoder(buffer);
+        const type = d.u8() === 1 ? 'SNAPSHOT' : 'DELTA';
+        const frame = { type, timestamp: d.varint(), ack: d.varint(), allPlayers: d.varint() };
+        frame.leaderboard = d.list(() => ({ name: d.string(), score: d.varint(), color: d.color() }));
+
+        const entered = d.list(() => d.player());
+        if (type === 'SNAPSHOT') {
+            frame.visiblePlayers = entered;
+            return frame;
+        }
+        frame.entered = entered;
+        frame.updated = d.list(() => d.update());
+        frame.left = d.list(() => d.varint());
+        return frame;
+    }
+
+    player() {
+        const p = { id: this.varint(), name: this.string(), color: this.color() };
+        this.head(p);
+        p.trail = this.points();
+        p.territory = this.list(() => this.points());
+        return p;
+    }
+
+    update() {
+        const u = { id: this.varint() };
+        const flags = this.head(u);
+        u.trailFrom = this.varint();
+        u.trail = this.points();
+        if (flags & 2) u.territory = this.list(() => this.points());
+        return u;
+    }
+
+    head(p) {
+        p.x = this.svarint() / BinaryDecoder.COORD_SCALE;
+        p.y = this.svarint() / BinaryDecoder.COORD_SCALE;
+        p.score = this.varint();
+        p.angle = this.view.getUint16(this.pos) * (2 * Math.PI / 65536);
+        this.pos += 2;
+        const flags = this.u8();
+        p.isAlive = (flags & 1) !== 0;
+        return flags;
+    }
+
+    points() {
+        const count = this.varint();
+        const ring = new Array(count * 2);
+        let x = 0, y = 0;
+        for (let i = 0; i < count; i++) {
+            x += this.svarint();
+            y += this.svarint();
+            ring[i * 2] = x / BinaryDecoder.COORD_SCALE;
+            ring[i * 2 + 1] = y / BinaryDecoder.COORD_SCALE;
+        }
+        return ring;
+    }
+
+    list(readItem) {
+        const count = this.varint();
+        const items = new Array(count);
+        for (let i = 0; i < count; i++) items[i] = readItem();
+        return items;
+    }
+
+    u8() {
+        return this.bytes[this.pos++];
+    }
+
+    varint() {
+        let result = 0, scale = 1, b;
+        do {
+            b = this.bytes[this.pos++];
+            result += (b & 0x7f) * scale;
+            scale *= 128;
+        } while (b & 0x80);
+        return result;
+    }
+
+    svarint() {
+        const v = this.varint();
+        return v % 2 === 0 ? v / 2 : -(v + 1) / 2;
+    }
+
+    string() {
+        const len = this.varint();
+        const s = BinaryDecoder.TEXT.decode(this.bytes.subarray(this.pos, this.pos + len));
+        this.pos += len;
+        return s;
+    }
+
+    color() {
+        const rgb = (this.u8() << 16) | (this.u8() << 8) | this.u8();
+        return '#' + rgb.toString(16).padStart(6, '0');
+    }
+}
+
 class Game {
     constructor() {
         this.canvas = document.getElementById('game-canvas');
@@ -220,6 +327,10 @@ class Game {
         this.ws = null;
         this.isPlaying = false;
         this.gameState = { players: [], allPlayers: 0 };
+        this.entities = null;
+        this.useBinary = true;
+        this.inputSeq = 0;
+        this.lastAckedInput = 0;
         this.myId = null;
         this.mouseX = 0; this.mouseY = 0;
 
@@ -283,7 +394,9 @@ class Game {
 
     connect(nick) {
         const protocol = location.protocol === 'https:' ? 'wss:' : 'ws:';
-        this.ws = new WebSocket(`${protocol}//${location.host}/game?name=${encodeURIComponent(nick)}`);
+        const format = this.useBinary ? '&proto=bin' : '';
+        this.ws = new WebSocket(`${protocol}//${location.host}/game?name=${encodeURIComponent(nick)}${format}`);
+        this.ws.binaryType = 'arraybuffer';
 
         this.ws.onopen = () => {
             this.isPlaying = true;
@@ -293,19 +406,13 @@ class Game {
         };
 
         this.ws.onmessage = (e) => {
-            const data = JSON.parse(e.data);
+            const data = typeof e.data === 'string' ? JSON.parse(e.data) : BinaryDecoder.decodeFrame(e.data);
             if (data.type === "INIT") {
-                this.myId = data.playerId;
+                this.myId = this.useBinary ? data.netId : data.playerId;
+            } else if (data.type === "DELTA") {
+                this.applyDelta(data);
             } else {
-                console.log(data);
-
-                const playersList = data.visiblePlayers || data.players || [];
-                this.gameState = {
-                    players: playersList,
-                    allPlayers: data.allPlayers || playersList.length,
-                    leaderboard: data.leaderboard || [],
-                    timestamp: data.timestamp
-                };
+                this.applySnapshot(data);
             }
         };
 
@@ -316,13 +423,57 @@ class Game {
         };
     }
 
+    applySnapshot(data) {
+        this.entities = new Map();
+        (data.visiblePlayers || data.players || []).forEach(p => this.entities.set(p.id, p));
+        this.updateGameState(data);
+    }
+
+    applyDelta(data) {
+        if (!this.entities) return;
+        data.left.forEach(id => this.entities.delete(id));
+        data.entered.forEach(p => this.entities.set(p.id, p));
+        data.updated.forEach(d => {
+            const p = this.entities.get(d.id);
+            if (!p) return;
+            p.x = d.x;
+            p.y = d.y;
+            p.score = d.score;
+            p.angle = d.angle;
+            p.isAlive = d.isAlive;
+            p.trail.length = Math.min(p.trail.length, d.trailFrom * 2);
+            if (d.trail) p.trail.push(...d.trail);
+            if (d.territory) p.territory = d.territory;
+        });
+        this.updateGameState(data);
+    }
+
+    updateGameState(data) {
+        this.lastAckedInput = data.ack || 0;
+        const playersList = Array.from(this.entities.values());
+        this.gameState = {
+            players: playersList,
+            allPlayers: data.allPlayers || playersList.length,
+            leaderboard: data.leaderboard || [],
+            timestamp: data.timestamp
+        };
+    }
+
     startInputLoop() {
         setInterval(() => {
             if (this.ws?.readyState === WebSocket.OPEN) {
-                this.ws.send(JSON.stringify({
-                    x: this.mouseX + this.camera.x,
-                    y: this.mouseY + this.camera.y
-                }));
+                const x = this.mouseX + this.camera.x;
+                const y = this.mouseY + this.camera.y;
+                const seq = ++this.inputSeq;
+                if (this.useBinary) {
+                    const packet = new DataView(new ArrayBuffer(12));
+                    packet.setFloat32(0, x);
+                    packet.setFloat32(4, y);
+                    packet.setUint32(8, seq);
+                    this.ws.send(packet.buffer);
+                } else {
+                    this.ws.send(JSON.stringify({ x, y, seq }));
+                }
             }
         }, 50);
     }
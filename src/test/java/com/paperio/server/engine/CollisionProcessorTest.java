@@ -0,0 +1,76 @@
+package com.paperio.server.engine;
+
+import com.paperio.server.config.GameProperties;
+import com.paperio.server.model.Player;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class CollisionProcessorTest {
+    private final GameProperties props = new GameProperties(null, null, null, null,
+            new GameProperties.CombatConfig(15.0, 5.0, 2.0), null, null, null, null, null, null);
+    private final CollisionProcessor processor = new CollisionProcessor(props, null);
+
+    private List<Player> crowdedRoom(SpatialGrid grid) {
+        GeometryFactory factory = new GeometryFactory();
+        Random random = new Random(42);
+        List<Player> players = new ArrayList<>();
+        for (int n = 0; n < 300; n++) {
+            double x = 200 + random.nextDouble() * 600;
+            double y = 200 + random.nextDouble() * 600;
+            Player p = new Player("p" + n, "p" + n, x, y, null,
+                    factory.createPoint(new Coordinate(x, y)).buffer(20));
+            p.setNetId(n + 1);
+            for (int i = 0; i < 40; i++) {
+                x += random.nextDouble() * 8 - 4;
+                y += random.nextDouble() * 8 - 4;
+                p.getTrail().add(x, y);
+            }
+            p.setPrevX(x);
+            p.setPrevY(y);
+            p.setX(x + random.nextDouble() * 8 - 4);
+            p.setY(y + random.nextDouble() * 8 - 4);
+            grid.update(p);
+            players.add(p);
+        }
+        return players;
+    }
+
+    private static List<List<Player>> emptyKillLists(int n) {
+        List<List<Player>> kills = new ArrayList<>();
+        for (int i = 0; i < n; i++) kills.add(new ArrayList<>());
+        return kills;
+    }
+
+    @Test
+    void parallelDetectionMatchesSerialDetection() {
+        SpatialGrid grid = new SpatialGrid(1000, 1000, 150);
+        List<Player> players = crowdedRoom(grid);
+
+        List<List<Player>> serial = emptyKillLists(players.size());
+        for (int i = 0; i < players.size(); i++) {
+            processor.detectKills(grid, players.get(i), serial.get(i));
+        }
+
+        List<List<Player>> parallel = emptyKillLists(players.size());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            pool.submit(() -> IntStream.range(0, players.size()).parallel()
+                    .forEach(i -> processor.detectKills(grid, players.get(i), parallel.get(i)))).join();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertFalse(serial.stream().allMatch(List::isEmpty));
+        assertEquals(serial, parallel);
+    }
+}
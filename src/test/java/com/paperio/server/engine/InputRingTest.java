@@ -0,0 +1,101 @@
+package com.paperio.server.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputRingTest {
+
+    @Test
+    void rejectsOffersWhenFull() {
+        InputRing ring = new InputRing(8);
+        for (int i = 1; i <= 8; i++) assertTrue(ring.offer(null, i, 0, i));
+        assertFalse(ring.offer(null, 9, 0, 9));
+
+        List<Integer> drained = new ArrayList<>();
+        ring.drain((p, x, y, seq) -> drained.add(seq));
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7, 8), drained);
+        assertTrue(ring.offer(null, 9, 0, 9));
+    }
+
+    @Test
+    void wrapsAroundInOrder() {
+        InputRing ring = new InputRing(8);
+        int next = 0;
+        for (int round = 0; round < 100; round++) {
+            int batch = 1 + round % 8;
+            for (int i = 0; i < batch; i++) {
+                assertTrue(ring.offer(null, next + i, -(next + i), next + i));
+            }
+            List<Integer> drained = new ArrayList<>();
+            int start = next;
+            ring.drain((p, x, y, seq) -> {
+                assertEquals(seq, (int) x);
+                assertEquals(-seq, (int) y);
+                drained.add(seq);
+            });
+            assertEquals(batch, drained.size());
+            for (int i = 0; i < batch; i++) assertEquals(start + i, drained.get(i));
+            next += batch;
+        }
+    }
+
+    @Test
+    void drainsEveryOfferFromConcurrentProducersExactlyOnce() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        InputRing ring = new InputRing(64);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < producers; t++) {
+            int producer = t;
+            threads.add(Thread.ofPlatform().daemon().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    // Yield rather than spin so the consumer is not starved on small machines
+                    while (!ring.offer(null, producer, 0, i)) Thread.yield();
+                }
+            }));
+        }
+
+        int[] seen = new int[producers * perProducer];
+        int[] lastSeq = new int[producers];
+        Arrays.fill(lastSeq, -1);
+        int[] received = {0};
+        start.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received[0] < seen.length && System.nanoTime() < deadline) {
+            int before = received[0];
+            ring.drain((p, x, y, seq) -> {
+                int producer = (int) x;
+                // Each producer's inputs stay in the order it offered them
+                assertEquals(lastSeq[producer] + 1, seq);
+                lastSeq[producer] = seq;
+                seen[producer * perProducer + seq]++;
+                received[0]++;
+            });
+            if (received[0] == before) Thread.yield();
+        }
+        for (Thread thread : threads) thread.join(TimeUnit.SECONDS.toMillis(5));
+        for (Thread thread : threads) assertFalse(thread.isAlive());
+
+        int[] once = new int[seen.length];
+        Arrays.fill(once, 1);
+        assertArrayEquals(once, seen);
+    }
+}
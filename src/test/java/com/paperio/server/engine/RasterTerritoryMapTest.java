@@ -0,0 +1,131 @@
+package com.paperio.server.engine;
+
+import com.paperio.server.config.GameProperties;
+import com.paperio.server.model.Trail;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RasterTerritoryMapTest {
+    private static final int CELL = 10;
+
+    private final GeometryFactory factory = new GeometryFactory();
+    private final RasterTerritoryMap map = new RasterTerritoryMap(new GameProperties.MapConfig(300, 300, 150), CELL);
+
+    private static Trail trail(double... xy) {
+        Trail trail = new Trail();
+        for (int i = 0; i < xy.length; i += 2) trail.add(xy[i], xy[i + 1]);
+        return trail;
+    }
+
+    /** Leaves the disc around (50, 50) upwards, loops around (60..120, 60..120) and re-enters from the right. */
+    private void conquerLoop(int owner) {
+        map.conquer(owner, trail(50, 65, 50, 120, 120, 120, 120, 50, 65, 50), 55, 50);
+    }
+
+    @Test
+    void closedLoopFillsEnclosedCells() {
+        map.paintDisc(1, 50, 50, 15);
+        int before = map.cellCount(1);
+
+        conquerLoop(1);
+
+        assertTrue(map.isOwnedBy(1, 90, 90));
+        assertTrue(map.isOwnedBy(1, 75, 105));
+        assertTrue(map.cellCount(1) > before + 25);
+    }
+
+    @Test
+    void openTrailFillsNothing() {
+        map.paintDisc(1, 150, 150, 15);
+        int before = map.cellCount(1);
+
+        map.conquer(1, trail(150, 165, 150, 190, 180, 220), 200, 240);
+
+        assertFalse(map.isOwnedBy(1, 175, 185));
+        assertFalse(map.isOwnedBy(1, 140, 200));
+        // Only the cells under the trail itself were claimed
+        assertTrue(map.cellCount(1) - before <= 12);
+    }
+
+    @Test
+    void conquestTakesCellsFromOtherOwnerAndMarksBothDirty() {
+        map.paintDisc(1, 50, 50, 15);
+        map.paintDisc(2, 90, 90, 15);
+        int victimBefore = map.cellCount(2);
+        int attackerBefore = map.cellCount(1);
+        map.clearDirty();
+
+        conquerLoop(1);
+
+        assertEquals(0, map.cellCount(2));
+        assertTrue(map.cellCount(1) >= attackerBefore + victimBefore);
+        assertTrue(map.isOwnedBy(1, 90, 90));
+        assertTrue(map.isDirty(1));
+        assertTrue(map.isDirty(2));
+    }
+
+    @Test
+    void releaseFreesOwnedCells() {
+        map.paintDisc(1, 50, 50, 15);
+        map.paintDisc(2, 200, 200, 15);
+        map.clearDirty();
+
+        map.release(1);
+
+        assertEquals(0, map.cellCount(1));
+        assertTrue(map.isOwnedBy(0, 50, 50));
+        assertTrue(map.isDirty(1));
+        assertFalse(map.isDirty(2));
+        assertTrue(map.isOwnedBy(2, 200, 200));
+    }
+
+    @Test
+    void extractCoversOwnedArea() {
+        map.paintDisc(1, 50, 50, 15);
+        conquerLoop(1);
+
+        Geometry territory = map.extract(1, factory);
+
+        assertEquals(map.area(1), territory.getArea(), map.area(1) * 0.05);
+        assertTrue(territory.contains(factory.createPoint(new Coordinate(50, 50))));
+        assertTrue(territory.contains(factory.createPoint(new Coordinate(90, 90))));
+        assertFalse(territory.contains(factory.createPoint(new Coordinate(200, 200))));
+    }
+
+    @Test
+    void releasedSlotsAreRecycledAcrossSpawns() {
+        for (int netId = 1; netId <= 1000; netId++) {
+            map.paintDisc(netId, 150, 150, 15);
+            map.release(netId);
+            map.clearDirty();
+        }
+        map.paintDisc(1001, 50, 50, 15);
+
+        assertEquals(64, map.slotCapacity());
+        assertEquals(0, map.cellCount(1000));
+        assertFalse(map.isOwnedBy(1000, 150, 150));
+        assertTrue(map.isOwnedBy(1001, 50, 50));
+        assertTrue(map.isOwnedBy(0, 150, 150));
+    }
+
+    @Test
+    void extractAfterChangeInOneBandMatchesOwnedArea() {
+        map.paintDisc(1, 50, 50, 15);
+        map.paintDisc(1, 50, 250, 15);
+        map.extract(1, factory);
+        map.clearDirty();
+
+        map.conquer(1, trail(50, 265, 50, 290, 110, 290, 110, 250, 65, 250), 55, 250);
+        Geometry territory = map.extract(1, factory);
+
+        assertEquals(map.area(1), territory.getArea(), map.area(1) * 0.05);
+        assertTrue(territory.contains(factory.createPoint(new Coordinate(50, 50))));
+        assertTrue(territory.contains(factory.createPoint(new Coordinate(90, 270))));
+    }
+}
@@ -0,0 +1,91 @@
+package com.paperio.server.engine;
+
+import com.paperio.server.model.Player;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SpatialGridTest {
+    private final GeometryFactory factory = new GeometryFactory();
+    private final SpatialGrid grid = new SpatialGrid(3000, 3000, 150);
+
+    private List<Player> room(int count) {
+        Random random = new Random(count);
+        List<Player> players = new ArrayList<>();
+        for (int n = 0; n < count; n++) {
+            double x = 100 + random.nextDouble() * 2800;
+            double y = 100 + random.nextDouble() * 2800;
+            Player p = new Player("p" + n, "p" + n, "#000000", x, y, null,
+                    factory.createPoint(new Coordinate(x, y)).buffer(30, 4));
+            for (int i = 0; i < 40; i++) {
+                x += random.nextDouble() * 8 - 4;
+                y += random.nextDouble() * 8 - 4;
+                p.getTrail().add(x, y);
+            }
+            p.setPrevX(x);
+            p.setPrevY(y);
+            p.setX(x + 4);
+            p.setY(y);
+            grid.update(p);
+            players.add(p);
+        }
+        return players;
+    }
+
+    @Test
+    void trailQueryFindsThePlayerWhoseTrailPassesNearby() {
+        List<Player> players = room(200);
+        SpatialGrid.Candidates out = new SpatialGrid.Candidates();
+
+        for (Player p : players) {
+            grid.queryTrails(p.getPrevX(), p.getPrevY(), p.getX(), p.getY(), 15, out);
+            boolean found = false;
+            for (int i = 0; i < out.size(); i++) found |= out.get(i) == p;
+            assertTrue(found, p.getName() + " missing from the candidates around its own trail end");
+        }
+    }
+
+    @Test
+    void removedPlayerIsNoLongerACandidate() {
+        Player p = room(1).getFirst();
+        SpatialGrid.Candidates out = new SpatialGrid.Candidates();
+
+        grid.remove(p);
+        grid.queryNearby(0, 3000, 0, 3000, out);
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void warmQueriesDoNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<Player> players = room(2000);
+        SpatialGrid.Candidates out = new SpatialGrid.Candidates();
+        for (Player p : players) grid.queryNearby(p.getX() - 200, p.getX() + 200, p.getY() - 200, p.getY() + 200, out);
+
+        long thread = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        long seen = 0;
+        for (int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            grid.queryTrails(p.getPrevX(), p.getPrevY(), p.getX(), p.getY(), 15, out);
+            seen += out.size();
+            grid.queryNearby(p.getX() - 200, p.getX() + 200, p.getY() - 200, p.getY() + 200, out);
+            seen += out.size();
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(seen > 0);
+        assertEquals(0, allocated, "4000 warm queries allocated " + allocated + " bytes");
+    }
+}
@@ -0,0 +1,45 @@
+package com.paperio.server.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TickClockTest {
+    private static final long STEP = 16_000_000L;
+
+    @Test
+    void runsOneTickPerElapsedStep() {
+        TickClock clock = new TickClock(STEP, 5, 0);
+
+        assertEquals(0, clock.dueTicks(STEP - 1));
+        assertEquals(1, clock.dueTicks(STEP));
+        clock.ticked(STEP + 1_000_000L);
+        assertEquals(STEP, clock.nanosUntilNextTick(STEP + 1_000_000L) + 1_000_000L);
+    }
+
+    @Test
+    void catchesUpBoundedlyAndCountsSkippedTicks() {
+        TickClock clock = new TickClock(STEP, 3, 0);
+
+        long now = 10 * STEP;
+        int due = clock.dueTicks(now);
+        for (int i = 0; i < due; i++) clock.ticked(now);
+
+        assertEquals(3, due);
+        assertEquals(7, clock.getSkipped());
+        assertEquals(3, clock.getTicks());
+        assertEquals(0, clock.dueTicks(now));
+    }
+
+    @Test
+    void countsTicksThatRunPastTheNextDeadline() {
+        TickClock clock = new TickClock(STEP, 5, 0);
+
+        clock.dueTicks(STEP);
+        clock.ticked(STEP + STEP / 2);
+        clock.dueTicks(2 * STEP);
+        clock.ticked(3 * STEP + 1);
+
+        assertEquals(1, clock.getOverruns());
+    }
+}
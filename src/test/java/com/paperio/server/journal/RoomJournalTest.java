@@ -0,0 +1,61 @@
+package com.paperio.server.journal;
+
+import com.paperio.server.engine.BotController;
+import com.paperio.server.model.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RoomJournalTest {
+
+    @Test
+    void readsBackTicksAcrossSegments(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("room.journal");
+        GeometryFactory factory = new GeometryFactory();
+        Player bot = new Player("bot-1", "Bot-ä", "#ff0000", 120.5, 340.25, null,
+                factory.createPoint(new Coordinate(120.5, 340.25)).buffer(20));
+        bot.setNetId(7);
+        bot.setBotController(new BotController(bot, null, null, -42L));
+
+        int ticks = 20_000;
+        try (RoomJournal journal = RoomJournal.create(file, 0, 60)) {
+            for (int t = 1; t <= ticks; t++) {
+                journal.tick(t);
+                if (t == 1) journal.spawn(bot);
+                journal.input(7, t * 0.5, -t, t);
+                if (t % 100 == 0) journal.deferConquest(7);
+                if (t % 60 == 0) journal.checkpoint(t * 31L);
+                if (t == ticks) journal.leave(7);
+            }
+        }
+
+        try (JournalReader reader = new JournalReader(file)) {
+            assertEquals(60, reader.getTickRate());
+
+            JournalTick first = reader.next();
+            assertEquals(1, first.tick());
+            assertEquals(List.of(new JournalTick.Spawn(7, "bot-1", "Bot-ä", "#ff0000", 120.5, 340.25, true, -42L)),
+                    first.spawns());
+            assertEquals(List.of(new JournalTick.Input(7, 0.5, -1, 1)), first.inputs());
+            assertNull(first.checkpoint());
+
+            JournalTick last = first;
+            for (int t = 2; t <= ticks; t++) {
+                last = reader.next();
+                assertEquals(t, last.tick());
+                assertEquals(List.of(new JournalTick.Input(7, t * 0.5, -t, t)), last.inputs());
+                if (t % 60 == 0) assertEquals(t * 31L, last.checkpoint());
+                assertEquals(t % 100 == 0 ? List.of(7) : List.of(), last.deferredConquests());
+            }
+            assertEquals(List.of(7), last.leaves());
+            assertNull(reader.next());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.paperio.server.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrailTest {
+
+    private static Trail horizontalTrail(double y, double fromX, double toX, double step) {
+        Trail trail = new Trail();
+        for (double x = fromX; x <= toX; x += step) {
+            trail.add(x, y);
+        }
+        return trail;
+    }
+
+    @Test
+    void pointQueryFindsOnlyNearbySegments() {
+        Trail trail = horizontalTrail(100, 0, 400, 4);
+
+        assertTrue(trail.isNear(200, 110, 15, trail.size()));
+        assertFalse(trail.isNear(200, 130, 15, trail.size()));
+    }
+
+    @Test
+    void sweptQueryCatchesHeadsThatTunnelThroughTheTrail() {
+        Trail trail = horizontalTrail(100, 0, 400, 4);
+
+        assertFalse(trail.isNear(200, 160, 15, trail.size()));
+        assertTrue(trail.isNearSegment(200, 40, 200, 160, 15, trail.size()));
+    }
+
+    @Test
+    void pointCountExcludesRecentSegments() {
+        Trail trail = horizontalTrail(100, 0, 400, 4);
+
+        assertTrue(trail.isNear(398, 100, 5, trail.size()));
+        assertFalse(trail.isNear(398, 100, 5, trail.size() - 15));
+    }
+
+    @Test
+    void clearingDropsIndexedSegments() {
+        Trail trail = horizontalTrail(100, 0, 400, 4);
+        trail.clear();
+        trail.add(0, 0);
+        trail.add(4, 0);
+
+        assertFalse(trail.isNear(200, 100, 15, trail.size()));
+        assertTrue(trail.isNear(2, 1, 5, trail.size()));
+    }
+
+    /** Sweeps parallel to a trail along y = 100, just outside the radius, so no query can exit early. */
+    private static int sweepCost(Trail trail, double sweptLength) {
+        double y = 100 + 20;
+        int[] tested = new int[1];
+        assertFalse(trail.isNearSegment(1000, y, 1000 + sweptLength, y, 15, trail.size(), tested));
+        return tested[0];
+    }
+
+    @Test
+    void queryCostIsIndependentOfTrailLength() {
+        int shortCost = sweepCost(horizontalTrail(100, 0, 2000, 4), 16);
+        int longCost = sweepCost(horizontalTrail(100, 0, 8000, 4), 16);
+
+        assertTrue(shortCost > 0);
+        assertEquals(shortCost, longCost);
+    }
+
+    @Test
+    void queryCostGrowsOnlyWithSweptLength() {
+        Trail trail = horizontalTrail(100, 0, 8000, 4);
+        double cell = TrailSegmentIndex.CELL_SIZE;
+        // The trail sits in one row of cells, each filing cell / step segments plus the one crossing into it;
+        // allow as much again for buckets shared with cells further along the trail.
+        int perCell = 2 * ((int) (cell / 4) + 1);
+
+        for (double speed = 4; speed <= 256; speed *= 2) {
+            int cellsAlong = (int) Math.ceil((speed + 2 * 15) / cell) + 1;
+            int cost = sweepCost(trail, speed);
+            assertTrue(cost <= cellsAlong * perCell,
+                    "speed " + speed + " tested " + cost + " segments, bound " + cellsAlong * perCell);
+        }
+        assertTrue(sweepCost(trail, 256) < trail.size() / 10);
+    }
+
+    /** Average segments tested per kill-radius sweep of random heads around a meandering trail. */
+    private static double averageSweepCost(Trail trail, double speed) {
+        Random random = new Random(1);
+        long tested = 0;
+        int[] counter = new int[1];
+        int queries = 20_000;
+        for (int i = 0; i < queries; i++) {
+            int near = random.nextInt(trail.size());
+            double x = trail.getX(near) + random.nextGaussian() * 40;
+            double y = trail.getY(near) + random.nextGaussian() * 40;
+            double heading = random.nextDouble() * 2 * Math.PI;
+            counter[0] = 0;
+            trail.isNearSegment(x, y, x + speed * Math.cos(heading), y + speed * Math.sin(heading), 15,
+                    trail.size(), counter);
+            tested += counter[0];
+        }
+        return (double) tested / queries;
+    }
+
+    @Test
+    void averageQueryCostStaysFlatAsSpeedGrowsUpToTheCellSize() {
+        Random random = new Random(7);
+        Trail trail = new Trail();
+        double x = 0, y = 0, heading = 0;
+        for (int i = 0; i < 2000; i++) {
+            heading += random.nextGaussian() * 0.2;
+            x += 4 * Math.cos(heading);
+            y += 4 * Math.sin(heading);
+            trail.add(x, y);
+        }
+
+        double slowest = averageSweepCost(trail, 1);
+        for (double speed = 2; speed <= TrailSegmentIndex.CELL_SIZE; speed *= 2) {
+            double cost = averageSweepCost(trail, speed);
+            assertTrue(cost <= slowest * 1.5, "speed " + speed + " tested " + cost + " segments, speed 1 " + slowest);
+        }
+    }
+}
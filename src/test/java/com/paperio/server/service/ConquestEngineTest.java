@@ -0,0 +1,56 @@
+package com.paperio.server.service;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.impl.CoordinateArraySequence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConquestEngineTest {
+    private final GeometryFactory factory = new GeometryFactory();
+    private final ConquestEngine overlay = new OverlayConquestEngine(factory);
+    private final ConquestEngine splice = new SpliceConquestEngine(factory, overlay);
+
+    private Geometry square() {
+        return factory.createPolygon(new Coordinate[]{
+                new Coordinate(0, 0), new Coordinate(100, 0),
+                new Coordinate(100, 100), new Coordinate(0, 100), new Coordinate(0, 0)
+        });
+    }
+
+    private static CoordinateSequence trail(double... xy) {
+        Coordinate[] coords = new Coordinate[xy.length / 2];
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = new Coordinate(xy[2 * i], xy[2 * i + 1]);
+        }
+        return new CoordinateArraySequence(coords);
+    }
+
+    @Test
+    void spliceMatchesOverlayOnASimpleLoop() {
+        Geometry territory = square();
+        CoordinateSequence loop = trail(102, 20, 150, 20, 150, 80, 102, 80);
+
+        Geometry spliced = splice.conquer(territory, loop);
+        Geometry overlaid = overlay.conquer(territory, loop);
+
+        assertTrue(spliced.isValid());
+        assertTrue(spliced.buffer(0.5).covers(territory));
+        assertEquals(overlaid.getArea(), spliced.getArea(), overlaid.getArea() * 0.06);
+    }
+
+    @Test
+    void selfCrossingLoopFallsBackToOverlay() {
+        Geometry territory = square();
+        CoordinateSequence loop = trail(102, 20, 160, 80, 160, 20, 102, 80);
+
+        Geometry conquered = splice.conquer(territory, loop);
+
+        assertTrue(conquered.isValid());
+        assertEquals(overlay.conquer(territory, loop).getArea(), conquered.getArea(), 1e-6);
+    }
+}
@@ -0,0 +1,55 @@
+package com.paperio.server.service;
+
+import com.paperio.server.config.GameProperties;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeometryServiceTest {
+    private final GeometryFactory factory = new GeometryFactory();
+    private final GeometryService service = new GeometryService(new GameProperties(null, null, null, null, null, null,
+            new GameProperties.TerritoryConfig(1, 0, GameProperties.ConquestEngineType.OVERLAY, 40,
+                    GameProperties.TerritoryMode.VECTOR, 5, 4),
+            null, null, null, null));
+
+    /** A disc with shallow notches on every other vertex, i.e. many concave corners. */
+    private Geometry notchedDisc() {
+        int n = 200;
+        Coordinate[] ring = new Coordinate[n + 1];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double radius = i % 2 == 0 ? 100 : 96;
+            ring[i] = new Coordinate(radius * Math.cos(angle), radius * Math.sin(angle));
+        }
+        ring[n] = ring[0];
+        return factory.createPolygon(ring);
+    }
+
+    @Test
+    void plainBudgetPassCanGrowTheTerritory() {
+        Geometry reduced = notchedDisc();
+        Geometry simplified = service.enforceVertexBudget(reduced);
+
+        assertTrue(simplified.difference(reduced).getArea() > 1.0);
+    }
+
+    @Test
+    void budgetWithinStaysInsideTheReducedTerritory() {
+        Geometry reduced = notchedDisc();
+        Geometry budgeted = service.enforceVertexBudgetWithin(reduced);
+
+        assertTrue(budgeted.getNumPoints() <= 40);
+        assertTrue(budgeted.difference(reduced).getArea() < 1e-6);
+        assertTrue(budgeted.getArea() > reduced.getArea() * 0.9);
+    }
+
+    @Test
+    void territoryWithinBudgetIsReturnedUntouched() {
+        Geometry small = factory.createPoint(new Coordinate(0, 0)).buffer(10, 4);
+        assertEquals(small, service.enforceVertexBudgetWithin(small));
+    }
+}